@@ -1,13 +1,24 @@
 package edu.iti.schoolmis.config;
 
+import edu.iti.schoolmis.security.BCryptCalibration;
+import edu.iti.schoolmis.security.JwtAuthenticationFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -15,18 +26,51 @@ import java.util.Arrays;
 import java.util.List;
 
 /**
- * Security configuration with environment-based CORS
+ * Security configuration with environment-based CORS.
+ * Only the sign-in endpoints are public; everything else needs a valid access token,
+ * and role checks are declared on the endpoints with @PreAuthorize.
  */
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${security.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${security.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${security.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    @Value("${security.bcrypt.target-ms:250}")
+    private long bcryptTargetMs;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    /**
+     * Benchmark BCrypt at startup unless a fixed strength is configured
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptCalibration bcryptCalibration() {
+        BCryptCalibration calibration = bcryptStrength > 0
+                ? BCryptCalibration.fixed(bcryptStrength)
+                : BCryptCalibration.calibrate(bcryptMinStrength, bcryptMaxStrength, bcryptTargetMs);
+        log.info("BCrypt work factor {} ({} ms per hash, calibrated: {})",
+                calibration.getStrength(), String.format("%.1f", calibration.getHashMs()), calibration.isCalibrated());
+        return calibration;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(BCryptCalibration bcryptCalibration) {
+        return new BCryptPasswordEncoder(bcryptCalibration.getStrength());
     }
 
     @Bean
@@ -34,11 +78,31 @@ public class SecurityConfig {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
-            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .authorizeHttpRequests(auth -> auth
+                    .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                    .requestMatchers("/error").permitAll()
+                    // Health and welcome endpoints; the deploy health check calls /api/health without a token
+                    .requestMatchers(HttpMethod.GET, "/", "/api", "/api/", "/api/health").permitAll()
+                    .requestMatchers(HttpMethod.POST,
+                            "/api/auth/register", "/api/auth/login", "/api/auth/refresh", "/api/auth/logout").permitAll()
+                    .anyRequest().authenticated())
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Keep the JWT filter inside the security chain only, not as a plain servlet filter
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(jwtAuthenticationFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
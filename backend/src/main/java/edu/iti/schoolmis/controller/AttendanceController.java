@@ -1,7 +1,9 @@
 package edu.iti.schoolmis.controller;
 
+import edu.iti.schoolmis.dto.Expanded;
 import edu.iti.schoolmis.entity.Attendance;
 import edu.iti.schoolmis.service.AttendanceService;
+import edu.iti.schoolmis.service.ReferenceLoader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +23,9 @@ public class AttendanceController {
     @Autowired
     private AttendanceService attendanceService;
 
+    @Autowired
+    private ReferenceLoader referenceLoader;
+
     /**
      * Record attendance
      * POST /api/attendance
@@ -46,8 +51,11 @@ public class AttendanceController {
      * GET /api/attendance/student/{studentId}
      */
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<Attendance>> getStudentAttendance(@PathVariable String studentId) {
-        List<Attendance> response = attendanceService.getStudentAttendance(studentId);
+    public ResponseEntity<List<Expanded<Attendance>>> getStudentAttendance(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Attendance>> response = referenceLoader.expand(
+                attendanceService.getStudentAttendance(studentId), expand, ReferenceLoader.ATTENDANCE_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -56,8 +64,11 @@ public class AttendanceController {
      * GET /api/attendance/enrollment/{enrollmentId}
      */
     @GetMapping("/enrollment/{enrollmentId}")
-    public ResponseEntity<List<Attendance>> getEnrollmentAttendance(@PathVariable String enrollmentId) {
-        List<Attendance> response = attendanceService.getEnrollmentAttendance(enrollmentId);
+    public ResponseEntity<List<Expanded<Attendance>>> getEnrollmentAttendance(
+            @PathVariable String enrollmentId,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Attendance>> response = referenceLoader.expand(
+                attendanceService.getEnrollmentAttendance(enrollmentId), expand, ReferenceLoader.ATTENDANCE_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
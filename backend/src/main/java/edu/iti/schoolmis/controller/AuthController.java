@@ -1,16 +1,27 @@
 package edu.iti.schoolmis.controller;
 
+import edu.iti.schoolmis.dto.BulkImportReport;
 import edu.iti.schoolmis.dto.LoginRequest;
 import edu.iti.schoolmis.dto.LoginResponse;
+import edu.iti.schoolmis.dto.RefreshTokenRequest;
 import edu.iti.schoolmis.dto.RegisterRequest;
 import edu.iti.schoolmis.dto.UserResponse;
-import edu.iti.schoolmis.security.JwtTokenProvider;
+import edu.iti.schoolmis.exception.InvalidCredentialsException;
+import edu.iti.schoolmis.security.JwtPrincipal;
+import edu.iti.schoolmis.security.UserPrincipal;
 import edu.iti.schoolmis.service.AuthService;
+import edu.iti.schoolmis.service.UserOnboardingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 
 /**
  * REST Controller for authentication endpoints
@@ -24,7 +35,7 @@ public class AuthController {
     private AuthService authService;
 
     @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    private UserOnboardingService userOnboardingService;
 
     /**
      * Register a new user
@@ -36,25 +47,61 @@ public class AuthController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Register many users from a CSV (with header row) or JSON array upload (admin only)
+     * POST /api/auth/register/bulk
+     */
+    @PostMapping(value = "/register/bulk", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportReport> registerBulk(HttpServletRequest httpRequest) throws IOException {
+        BulkImportReport report = userOnboardingService.registerAll(
+                httpRequest.getInputStream(), httpRequest.getContentType());
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
     /**
      * Login user
      * POST /api/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                               HttpServletRequest httpRequest) {
+        LoginResponse response = authService.login(request, httpRequest.getRemoteAddr());
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Exchange refresh token for a new token pair
+     * POST /api/auth/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        LoginResponse response = authService.refresh(request.getRefreshToken());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Logout and revoke current tokens
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            Authentication authentication,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        JwtPrincipal accessToken = authentication != null && authentication.getCredentials() instanceof JwtPrincipal token
+                ? token
+                : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     /**
      * Get current user profile
      * GET /api/auth/me
      */
     @GetMapping("/me")
-    public ResponseEntity<UserResponse> getCurrentUser(@RequestHeader("Authorization") String token) {
-        // Extract email from token - in real implementation, this would be extracted from SecurityContext
-        String email = extractEmailFromToken(token);
-        UserResponse response = authService.getUserByEmail(email);
+    public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal UserPrincipal principal) {
+        UserResponse response = authService.getCurrentUser(requireAuthenticated(principal).getEmail());
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -86,24 +133,21 @@ public class AuthController {
      */
     @PostMapping("/change-password")
     public ResponseEntity<Void> changePassword(
-            @RequestHeader("Authorization") String token,
+            @AuthenticationPrincipal UserPrincipal principal,
             @RequestParam String oldPassword,
             @RequestParam String newPassword) {
-        String email = extractEmailFromToken(token);
-        UserResponse user = authService.getUserByEmail(email);
-        authService.changePassword(user.getId(), oldPassword, newPassword);
+        authService.changePassword(requireAuthenticated(principal).getId(), oldPassword, newPassword);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
     /**
-     * Extract email from JWT token
+     * Ensure the request carried a valid token
      */
-    private String extractEmailFromToken(String authorizationHeader) {
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7); // Remove "Bearer " prefix
-            return jwtTokenProvider.getEmailFromToken(token); // Parse token and extract email
+    private UserPrincipal requireAuthenticated(UserPrincipal principal) {
+        if (principal == null) {
+            throw new InvalidCredentialsException("Invalid or expired token");
         }
-        throw new IllegalArgumentException("Invalid Authorization header format");
+        return principal;
     }
 }
 
@@ -0,0 +1,34 @@
+package edu.iti.schoolmis.controller;
+
+import edu.iti.schoolmis.dto.AutocompleteSuggestion;
+import edu.iti.schoolmis.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * REST Controller for typeahead suggestions when picking a student, teacher or course
+ */
+@RestController
+@RequestMapping("/api/autocomplete")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AutocompleteController {
+
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * Suggestions by prefix of ID, name, course code or course name
+     * GET /api/autocomplete?q=stu00&type=STUDENT&limit=10
+     */
+    @GetMapping
+    public ResponseEntity<List<AutocompleteSuggestion>> autocomplete(
+            @RequestParam("q") String prefix,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<AutocompleteSuggestion> response = searchService.autocomplete(prefix, type, limit);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
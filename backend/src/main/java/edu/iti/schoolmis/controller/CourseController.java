@@ -1,7 +1,10 @@
 package edu.iti.schoolmis.controller;
 
+import edu.iti.schoolmis.dto.CourseRoster;
 import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.service.CourseRosterService;
 import edu.iti.schoolmis.service.CourseService;
+import edu.iti.schoolmis.service.EnrollmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +22,12 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private CourseRosterService courseRosterService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
     /**
      * Create a new course
      * POST /api/courses
@@ -39,6 +48,19 @@ public class CourseController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Get course roster, one page at a time
+     * GET /api/courses/{id}/roster?page=0&size=50
+     */
+    @GetMapping("/{id}/roster")
+    public ResponseEntity<CourseRoster> getCourseRoster(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        CourseRoster response = courseRosterService.getRoster(id, page, size);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     /**
      * Get course by code
      * GET /api/courses/code/{courseCode}
@@ -90,7 +112,7 @@ public class CourseController {
     }
 
     /**
-     * Update course
+     * Update course; seats freed by a raised capacity go to waitlisted students
      * PUT /api/courses/{id}
      */
     @PutMapping("/{id}")
@@ -98,6 +120,11 @@ public class CourseController {
             @PathVariable String id,
             @RequestBody Course course) {
         Course response = courseService.updateCourse(id, course);
+        if (response.getMaxCapacity() <= 0 || response.getCurrentEnrollment() < response.getMaxCapacity()) {
+            if (enrollmentService.fillFreeSeats(id) > 0) {
+                response = courseService.getCourseById(id);
+            }
+        }
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
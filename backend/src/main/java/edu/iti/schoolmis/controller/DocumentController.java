@@ -1,7 +1,9 @@
 package edu.iti.schoolmis.controller;
 
+import edu.iti.schoolmis.dto.Expanded;
 import edu.iti.schoolmis.entity.StudentDocument;
 import edu.iti.schoolmis.service.DocumentService;
+import edu.iti.schoolmis.service.ReferenceLoader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +21,9 @@ public class DocumentController {
     @Autowired
     private DocumentService documentService;
 
+    @Autowired
+    private ReferenceLoader referenceLoader;
+
     /**
      * Upload document
      * POST /api/documents
@@ -44,8 +49,11 @@ public class DocumentController {
      * GET /api/documents/student/{studentId}
      */
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<StudentDocument>> getStudentDocuments(@PathVariable String studentId) {
-        List<StudentDocument> response = documentService.getStudentDocuments(studentId);
+    public ResponseEntity<List<Expanded<StudentDocument>>> getStudentDocuments(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<StudentDocument>> response = referenceLoader.expand(
+                documentService.getStudentDocuments(studentId), expand, ReferenceLoader.DOCUMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -54,8 +62,11 @@ public class DocumentController {
      * GET /api/documents/type/{documentType}
      */
     @GetMapping("/type/{documentType}")
-    public ResponseEntity<List<StudentDocument>> getDocumentsByType(@PathVariable String documentType) {
-        List<StudentDocument> response = documentService.getDocumentsByType(documentType);
+    public ResponseEntity<List<Expanded<StudentDocument>>> getDocumentsByType(
+            @PathVariable String documentType,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<StudentDocument>> response = referenceLoader.expand(
+                documentService.getDocumentsByType(documentType), expand, ReferenceLoader.DOCUMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -64,10 +75,12 @@ public class DocumentController {
      * GET /api/documents/student/{studentId}/type/{documentType}
      */
     @GetMapping("/student/{studentId}/type/{documentType}")
-    public ResponseEntity<List<StudentDocument>> getStudentDocumentsByType(
+    public ResponseEntity<List<Expanded<StudentDocument>>> getStudentDocumentsByType(
             @PathVariable String studentId,
-            @PathVariable String documentType) {
-        List<StudentDocument> response = documentService.getStudentDocumentsByType(studentId, documentType);
+            @PathVariable String documentType,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<StudentDocument>> response = referenceLoader.expand(
+                documentService.getStudentDocumentsByType(studentId, documentType), expand, ReferenceLoader.DOCUMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
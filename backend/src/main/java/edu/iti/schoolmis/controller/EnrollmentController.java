@@ -1,11 +1,23 @@
 package edu.iti.schoolmis.controller;
 
+import edu.iti.schoolmis.dto.BulkImportReport;
+import edu.iti.schoolmis.dto.BulkTransitionResult;
+import edu.iti.schoolmis.dto.CohortEnrollmentRequest;
+import edu.iti.schoolmis.dto.CohortEnrollmentStatus;
+import edu.iti.schoolmis.dto.Expanded;
+import edu.iti.schoolmis.dto.GradeEntry;
+import edu.iti.schoolmis.dto.TransitionResult;
 import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.service.CohortEnrollmentService;
 import edu.iti.schoolmis.service.EnrollmentService;
+import edu.iti.schoolmis.service.GradebookService;
+import edu.iti.schoolmis.service.ReferenceLoader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
 import java.util.List;
 
 /**
@@ -19,6 +31,15 @@ public class EnrollmentController {
     @Autowired
     private EnrollmentService enrollmentService;
 
+    @Autowired
+    private CohortEnrollmentService cohortEnrollmentService;
+
+    @Autowired
+    private GradebookService gradebookService;
+
+    @Autowired
+    private ReferenceLoader referenceLoader;
+
     /**
      * Enroll student in course
      * POST /api/enrollments
@@ -31,6 +52,28 @@ public class EnrollmentController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Enroll every active student of a level into a set of courses, in the background (admins and enrollment officers)
+     * POST /api/enrollments/cohort
+     */
+    @PostMapping("/cohort")
+    @PreAuthorize("hasAnyRole('ADMIN','ENROLLMENT_OFFICER')")
+    public ResponseEntity<CohortEnrollmentStatus> enrollCohort(@Valid @RequestBody CohortEnrollmentRequest request) {
+        CohortEnrollmentStatus response = cohortEnrollmentService.start(request.getLevel(), request.getCourseIds());
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Get cohort enrollment progress (admins and enrollment officers)
+     * GET /api/enrollments/cohort/{jobId}
+     */
+    @GetMapping("/cohort/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN','ENROLLMENT_OFFICER')")
+    public ResponseEntity<CohortEnrollmentStatus> getCohortEnrollmentStatus(@PathVariable String jobId) {
+        CohortEnrollmentStatus response = cohortEnrollmentService.getStatus(jobId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     /**
      * Get enrollment by ID
      * GET /api/enrollments/{id}
@@ -46,8 +89,11 @@ public class EnrollmentController {
      * GET /api/enrollments/student/{studentId}
      */
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<Enrollment>> getStudentEnrollments(@PathVariable String studentId) {
-        List<Enrollment> response = enrollmentService.getStudentEnrollments(studentId);
+    public ResponseEntity<List<Expanded<Enrollment>>> getStudentEnrollments(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Enrollment>> response = referenceLoader.expand(
+                enrollmentService.getStudentEnrollments(studentId), expand, ReferenceLoader.ENROLLMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -56,8 +102,11 @@ public class EnrollmentController {
      * GET /api/enrollments/student/{studentId}/active
      */
     @GetMapping("/student/{studentId}/active")
-    public ResponseEntity<List<Enrollment>> getActiveEnrollments(@PathVariable String studentId) {
-        List<Enrollment> response = enrollmentService.getActiveEnrollments(studentId);
+    public ResponseEntity<List<Expanded<Enrollment>>> getActiveEnrollments(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Enrollment>> response = referenceLoader.expand(
+                enrollmentService.getActiveEnrollments(studentId), expand, ReferenceLoader.ENROLLMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -66,8 +115,11 @@ public class EnrollmentController {
      * GET /api/enrollments/course/{courseId}
      */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<Enrollment>> getCourseEnrollments(@PathVariable String courseId) {
-        List<Enrollment> response = enrollmentService.getCourseEnrollments(courseId);
+    public ResponseEntity<List<Expanded<Enrollment>>> getCourseEnrollments(
+            @PathVariable String courseId,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Enrollment>> response = referenceLoader.expand(
+                enrollmentService.getCourseEnrollments(courseId), expand, ReferenceLoader.ENROLLMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -85,24 +137,59 @@ public class EnrollmentController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Upload grade sheet for a whole course (admins and teachers)
+     * PATCH /api/enrollments/course/{courseId}/grades
+     */
+    @PatchMapping("/course/{courseId}/grades")
+    @PreAuthorize("hasAnyRole('ADMIN','TEACHER')")
+    public ResponseEntity<BulkImportReport> uploadGradeSheet(
+            @PathVariable String courseId,
+            @RequestBody List<GradeEntry> entries) {
+        BulkImportReport response = gradebookService.applyGradeSheet(courseId, entries);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Activate pending enrollment
+     * PATCH /api/enrollments/{id}/activate
+     */
+    @PatchMapping("/{id}/activate")
+    public ResponseEntity<TransitionResult> activateEnrollment(@PathVariable String id) {
+        TransitionResult response = enrollmentService.activateEnrollment(id);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     /**
      * Drop enrollment
      * PATCH /api/enrollments/{id}/drop
      */
     @PatchMapping("/{id}/drop")
-    public ResponseEntity<Void> dropEnrollment(@PathVariable String id) {
-        enrollmentService.dropEnrollment(id);
-        return new ResponseEntity<>(HttpStatus.OK);
+    public ResponseEntity<TransitionResult> dropEnrollment(@PathVariable String id) {
+        TransitionResult response = enrollmentService.dropEnrollment(id);
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     /**
-     * Complete enrollment
+     * Complete enrollment (admins and teachers)
      * PATCH /api/enrollments/{id}/complete
      */
     @PatchMapping("/{id}/complete")
-    public ResponseEntity<Void> completeEnrollment(@PathVariable String id) {
-        enrollmentService.completeEnrollment(id);
-        return new ResponseEntity<>(HttpStatus.OK);
+    @PreAuthorize("hasAnyRole('ADMIN','TEACHER')")
+    public ResponseEntity<TransitionResult> completeEnrollment(@PathVariable String id) {
+        TransitionResult response = enrollmentService.completeEnrollment(id);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Complete all active enrollments in a course (admins and teachers)
+     * PATCH /api/enrollments/course/{courseId}/complete
+     */
+    @PatchMapping("/course/{courseId}/complete")
+    @PreAuthorize("hasAnyRole('ADMIN','TEACHER')")
+    public ResponseEntity<BulkTransitionResult> completeCourseEnrollments(@PathVariable String courseId) {
+        BulkTransitionResult response = enrollmentService.completeCourseEnrollments(courseId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     /**
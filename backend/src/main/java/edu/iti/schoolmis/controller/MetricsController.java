@@ -0,0 +1,42 @@
+package edu.iti.schoolmis.controller;
+
+import edu.iti.schoolmis.security.LoginThrottle;
+import edu.iti.schoolmis.security.PasswordHashingExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+/**
+ * REST Controller exposing runtime metrics for monitoring
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class MetricsController {
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    /**
+     * Get password hashing pool metrics
+     * GET /api/metrics/password-hashing
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingMetrics() {
+        return new ResponseEntity<>(passwordHashingExecutor.getStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Get login throttle counters
+     * GET /api/metrics/login-throttle
+     */
+    @GetMapping("/login-throttle")
+    public ResponseEntity<Map<String, Object>> getLoginThrottleMetrics() {
+        return new ResponseEntity<>(loginThrottle.getStats(), HttpStatus.OK);
+    }
+}
@@ -1,7 +1,9 @@
 package edu.iti.schoolmis.controller;
 
+import edu.iti.schoolmis.dto.Expanded;
 import edu.iti.schoolmis.entity.Payment;
 import edu.iti.schoolmis.service.PaymentService;
+import edu.iti.schoolmis.service.ReferenceLoader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +21,9 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private ReferenceLoader referenceLoader;
+
     /**
      * Create payment record
      * POST /api/payments
@@ -44,8 +49,11 @@ public class PaymentController {
      * GET /api/payments/student/{studentId}
      */
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<Payment>> getStudentPayments(@PathVariable String studentId) {
-        List<Payment> response = paymentService.getStudentPayments(studentId);
+    public ResponseEntity<List<Expanded<Payment>>> getStudentPayments(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Payment>> response = referenceLoader.expand(
+                paymentService.getStudentPayments(studentId), expand, ReferenceLoader.PAYMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -54,8 +62,11 @@ public class PaymentController {
      * GET /api/payments/student/{studentId}/completed
      */
     @GetMapping("/student/{studentId}/completed")
-    public ResponseEntity<List<Payment>> getStudentCompletedPayments(@PathVariable String studentId) {
-        List<Payment> response = paymentService.getStudentCompletedPayments(studentId);
+    public ResponseEntity<List<Expanded<Payment>>> getStudentCompletedPayments(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Payment>> response = referenceLoader.expand(
+                paymentService.getStudentCompletedPayments(studentId), expand, ReferenceLoader.PAYMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -64,8 +75,11 @@ public class PaymentController {
      * GET /api/payments/status/{status}
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Payment>> getPaymentsByStatus(@PathVariable String status) {
-        List<Payment> response = paymentService.getPaymentsByStatus(status);
+    public ResponseEntity<List<Expanded<Payment>>> getPaymentsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Payment>> response = referenceLoader.expand(
+                paymentService.getPaymentsByStatus(status), expand, ReferenceLoader.PAYMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -74,8 +88,11 @@ public class PaymentController {
      * GET /api/payments/type/{paymentType}
      */
     @GetMapping("/type/{paymentType}")
-    public ResponseEntity<List<Payment>> getPaymentsByType(@PathVariable String paymentType) {
-        List<Payment> response = paymentService.getPaymentsByType(paymentType);
+    public ResponseEntity<List<Expanded<Payment>>> getPaymentsByType(
+            @PathVariable String paymentType,
+            @RequestParam(required = false) String expand) {
+        List<Expanded<Payment>> response = referenceLoader.expand(
+                paymentService.getPaymentsByType(paymentType), expand, ReferenceLoader.PAYMENT_REFERENCES);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
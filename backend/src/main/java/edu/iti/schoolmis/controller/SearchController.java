@@ -0,0 +1,33 @@
+package edu.iti.schoolmis.controller;
+
+import edu.iti.schoolmis.dto.SearchResponse;
+import edu.iti.schoolmis.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for searching students, teachers and courses
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    /**
+     * Ranked search by name, student ID, teacher ID, course code or course name
+     * GET /api/search?q=smith&page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<SearchResponse> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        SearchResponse response = searchService.search(query, page, size);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -1,14 +1,26 @@
 package edu.iti.schoolmis.controller;
 
+import edu.iti.schoolmis.dto.BulkImportReport;
+import edu.iti.schoolmis.dto.CursorPage;
+import edu.iti.schoolmis.dto.GpaRecomputeReport;
+import edu.iti.schoolmis.dto.StudentImportStatus;
+import edu.iti.schoolmis.dto.StudentOverviewResponse;
 import edu.iti.schoolmis.dto.StudentRequest;
 import edu.iti.schoolmis.dto.StudentResponse;
+import edu.iti.schoolmis.service.GpaService;
+import edu.iti.schoolmis.service.StudentImportService;
 import edu.iti.schoolmis.service.StudentService;
+import edu.iti.schoolmis.util.BulkReportCsv;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
-import java.util.List;
+import java.io.IOException;
 
 /**
  * REST Controller for student management endpoints
@@ -21,6 +33,12 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private GpaService gpaService;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
     /**
      * Create a new student
      * POST /api/students
@@ -31,6 +49,54 @@ public class StudentController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Import many students from a CSV (with header row) or JSON array upload, in the background (admin only)
+     * POST /api/students/import
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StudentImportStatus> importStudents(HttpServletRequest httpRequest) throws IOException {
+        StudentImportStatus response = studentImportService.start(
+                httpRequest.getInputStream(), httpRequest.getContentType());
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Get progress of a student import (admin only)
+     * GET /api/students/import/{jobId}
+     */
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StudentImportStatus> getImportStatus(@PathVariable String jobId) {
+        StudentImportStatus response = studentImportService.getStatus(jobId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Get the per-row report of a student import (admin only)
+     * GET /api/students/import/{jobId}/report
+     */
+    @GetMapping(value = "/import/{jobId}/report", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportReport> getImportReport(@PathVariable String jobId) {
+        BulkImportReport response = studentImportService.getReport(jobId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Download the rejected rows of a student import as CSV (admin only)
+     * GET /api/students/import/{jobId}/report (Accept: text/csv)
+     */
+    @GetMapping(value = "/import/{jobId}/report", produces = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> getImportErrorReport(@PathVariable String jobId) {
+        BulkImportReport report = studentImportService.getReport(jobId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"student-import-errors.csv\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(BulkReportCsv.failedRows(report));
+    }
+
     /**
      * Get student by ID
      * GET /api/students/{id}
@@ -41,6 +107,16 @@ public class StudentController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Get student dashboard overview
+     * GET /api/students/{id}/overview
+     */
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<StudentOverviewResponse> getStudentOverview(@PathVariable String id) {
+        StudentOverviewResponse response = studentService.getStudentOverview(id);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     /**
      * Get student by user ID
      * GET /api/students/user/{userId}
@@ -62,22 +138,27 @@ public class StudentController {
     }
 
     /**
-     * Get all active students
-     * GET /api/students/active
+     * Get active students, one page at a time
+     * GET /api/students/active?cursor={nextCursor}&size=50
      */
     @GetMapping("/active")
-    public ResponseEntity<List<StudentResponse>> getAllActiveStudents() {
-        List<StudentResponse> response = studentService.getAllActiveStudents();
+    public ResponseEntity<CursorPage<StudentResponse>> getAllActiveStudents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<StudentResponse> response = studentService.getAllActiveStudents(cursor, size);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     /**
-     * Get students by level
-     * GET /api/students/level/{level}
+     * Get students by level, one page at a time
+     * GET /api/students/level/{level}?cursor={nextCursor}&size=50
      */
     @GetMapping("/level/{level}")
-    public ResponseEntity<List<StudentResponse>> getStudentsByLevel(@PathVariable String level) {
-        List<StudentResponse> response = studentService.getStudentsByLevel(level);
+    public ResponseEntity<CursorPage<StudentResponse>> getStudentsByLevel(
+            @PathVariable String level,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<StudentResponse> response = studentService.getStudentsByLevel(level, cursor, size);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -94,15 +175,14 @@ public class StudentController {
     }
 
     /**
-     * Update student GPA
-     * PATCH /api/students/{id}/gpa
+     * Recompute every student's GPA from graded enrollments (admin only)
+     * POST /api/students/gpa/recompute
      */
-    @PatchMapping("/{id}/gpa")
-    public ResponseEntity<Void> updateStudentGpa(
-            @PathVariable String id,
-            @RequestParam double gpa) {
-        studentService.updateStudentGpa(id, gpa);
-        return new ResponseEntity<>(HttpStatus.OK);
+    @PostMapping("/gpa/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GpaRecomputeReport> recomputeGpas() {
+        GpaRecomputeReport response = gpaService.recomputeAll();
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     /**
@@ -1,12 +1,14 @@
 package edu.iti.schoolmis.controller;
 
+import edu.iti.schoolmis.dto.CursorPage;
 import edu.iti.schoolmis.dto.UserResponse;
 import edu.iti.schoolmis.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import java.util.Set;
 
 /**
  * REST Controller for user management endpoints
@@ -20,22 +22,27 @@ public class UserController {
     private UserService userService;
 
     /**
-     * Get all users with different roles
-     * GET /api/users
+     * Get all users with different roles, one page at a time
+     * GET /api/users?cursor={nextCursor}&size=50
      */
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
+    public ResponseEntity<CursorPage<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<UserResponse> users = userService.getAllUsers(cursor, size);
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
     /**
-     * Get users by role
-     * GET /api/users/role/{role}
+     * Get users by role, one page at a time
+     * GET /api/users/role/{role}?cursor={nextCursor}&size=50
      */
     @GetMapping("/role/{role}")
-    public ResponseEntity<List<UserResponse>> getUsersByRole(@PathVariable String role) {
-        List<UserResponse> users = userService.getUsersByRole(role);
+    public ResponseEntity<CursorPage<UserResponse>> getUsersByRole(
+            @PathVariable String role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<UserResponse> users = userService.getUsersByRole(role, cursor, size);
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
@@ -48,5 +55,18 @@ public class UserController {
         UserResponse user = userService.getUserById(id);
         return new ResponseEntity<>(user, HttpStatus.OK);
     }
+
+    /**
+     * Update user roles (admin only)
+     * PUT /api/users/{id}/roles
+     */
+    @PutMapping("/{id}/roles")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserResponse> updateUserRoles(
+            @PathVariable String id,
+            @RequestBody Set<String> roles) {
+        UserResponse user = userService.updateUserRoles(id, roles);
+        return new ResponseEntity<>(user, HttpStatus.OK);
+    }
 }
 
@@ -0,0 +1,77 @@
+package edu.iti.schoolmis.controller;
+
+import edu.iti.schoolmis.entity.WaitlistEntry;
+import edu.iti.schoolmis.service.EnrollmentService;
+import edu.iti.schoolmis.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * REST Controller for course waitlist endpoints
+ */
+@RestController
+@RequestMapping("/api/waitlist")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class WaitlistController {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    /**
+     * Join the waitlist of a full course
+     * POST /api/waitlist
+     */
+    @PostMapping
+    public ResponseEntity<WaitlistEntry> joinWaitlist(
+            @RequestParam String studentId,
+            @RequestParam String courseId) {
+        WaitlistEntry response = enrollmentService.joinWaitlist(studentId, courseId);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Get course waitlist in queue order
+     * GET /api/waitlist/course/{courseId}
+     */
+    @GetMapping("/course/{courseId}")
+    public ResponseEntity<List<WaitlistEntry>> getCourseWaitlist(@PathVariable String courseId) {
+        List<WaitlistEntry> response = waitlistService.getCourseWaitlist(courseId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Get waitlists a student is on
+     * GET /api/waitlist/student/{studentId}
+     */
+    @GetMapping("/student/{studentId}")
+    public ResponseEntity<List<WaitlistEntry>> getStudentWaitlists(@PathVariable String studentId) {
+        List<WaitlistEntry> response = waitlistService.getStudentWaitlists(studentId);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Get place in line, where 1 is next
+     * GET /api/waitlist/{id}/place
+     */
+    @GetMapping("/{id}/place")
+    public ResponseEntity<Long> getPlaceInLine(@PathVariable String id) {
+        long place = waitlistService.getPlaceInLine(id);
+        return new ResponseEntity<>(place, HttpStatus.OK);
+    }
+
+    /**
+     * Leave waitlist
+     * DELETE /api/waitlist/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable String id) {
+        waitlistService.leave(id);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
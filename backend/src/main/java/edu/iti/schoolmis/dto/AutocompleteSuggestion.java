@@ -0,0 +1,22 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one typeahead suggestion
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestion {
+
+    private String type; // STUDENT, TEACHER, COURSE
+
+    private String id;
+
+    private String label;
+
+    private String detail;
+}
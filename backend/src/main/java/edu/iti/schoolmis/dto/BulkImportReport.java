@@ -0,0 +1,37 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the per-row report of a bulk upload
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportReport {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<BulkRowResult> rows = new ArrayList<>();
+
+    /**
+     * Record outcome of one row and update the totals
+     */
+    public void add(BulkRowResult result) {
+        rows.add(result);
+        total++;
+        if (result.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+}
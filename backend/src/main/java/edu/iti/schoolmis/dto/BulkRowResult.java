@@ -0,0 +1,31 @@
+package edu.iti.schoolmis.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one row in a bulk upload
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRowResult {
+
+    private int row;
+
+    private String key;
+
+    private String status; // CREATED, UPDATED, INVALID, DUPLICATE, NOT_ENROLLED, CONFLICT, FAILED
+
+    private String message;
+
+    /**
+     * Whether the row was written
+     */
+    @JsonIgnore
+    public boolean isSuccess() {
+        return "CREATED".equals(status) || "UPDATED".equals(status);
+    }
+}
@@ -0,0 +1,20 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of a status transition applied to all matching enrollments of a course
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransitionResult {
+
+    private String courseId;
+
+    private String transition;
+
+    private long updated;
+}
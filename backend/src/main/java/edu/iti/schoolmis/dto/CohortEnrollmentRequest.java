@@ -0,0 +1,23 @@
+package edu.iti.schoolmis.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * DTO for enrolling every active student of a level into a set of courses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortEnrollmentRequest {
+
+    @NotBlank(message = "Level is required")
+    private String level;
+
+    @NotEmpty(message = "At least one course is required")
+    private List<String> courseIds;
+}
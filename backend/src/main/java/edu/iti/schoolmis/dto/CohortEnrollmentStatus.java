@@ -0,0 +1,43 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the progress of a cohort enrollment job
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortEnrollmentStatus {
+
+    private String jobId;
+
+    private String level;
+
+    private List<String> courseIds;
+
+    private String status; // RUNNING, COMPLETED, FAILED
+
+    private long studentsProcessed;
+
+    private long enrollmentsCreated;
+
+    private long enrollmentsSkipped; // pair already enrolled
+
+    private long enrollmentsFailed;
+
+    private long waitlistEntriesRemoved; // students the job enrolled were taken out of line
+
+    private Map<String, Integer> seatsOverCapacity; // courseId -> enrolled beyond maxCapacity, set when finished
+
+    private String error;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,25 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * DTO for one page of a course roster
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseRoster {
+
+    private String courseId;
+
+    private int total;
+
+    private int page;
+
+    private int size;
+
+    private List<RosterEntry> students;
+}
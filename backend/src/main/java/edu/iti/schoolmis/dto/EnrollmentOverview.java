@@ -0,0 +1,35 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one active enrollment in a student overview, with its course and attendance summary
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentOverview {
+
+    private String enrollmentId;
+
+    private String courseId;
+
+    private String courseCode;
+
+    private String courseName;
+
+    private int creditHours;
+
+    private LocalDateTime enrollmentDate;
+
+    private String grade;
+
+    private long attendanceRecords;
+
+    private long presentCount;
+
+    private double attendancePercentage;
+}
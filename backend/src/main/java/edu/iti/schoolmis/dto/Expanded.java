@@ -0,0 +1,24 @@
+package edu.iti.schoolmis.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+/**
+ * DTO wrapping a list item with its expanded references.
+ * The item's own fields are written inline, so without expansions the JSON is unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Expanded<T> {
+
+    @JsonUnwrapped
+    private T item;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, ReferenceSummary> expanded;
+}
@@ -0,0 +1,22 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of a batch GPA recomputation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GpaRecomputeReport {
+
+    private long enrollmentsScanned;
+
+    private int studentsUpdated;
+
+    private int studentsReset;
+
+    private long durationMs;
+}
@@ -0,0 +1,25 @@
+package edu.iti.schoolmis.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one row of a course grade sheet
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeEntry {
+
+    @NotBlank(message = "Student ID is required")
+    private String studentId;
+
+    @NotBlank(message = "Grade is required")
+    private String grade;
+
+    private double gradePoint;
+
+    private double finalScore;
+}
@@ -0,0 +1,20 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the display fields of a referenced student or course
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferenceSummary {
+
+    private String id;
+
+    private String name;
+
+    private String code; // student ID or course code
+}
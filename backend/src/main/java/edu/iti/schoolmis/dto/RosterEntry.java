@@ -0,0 +1,39 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one student on a course roster, flattened from enrollment, student and user
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterEntry {
+
+    private String enrollmentId;
+
+    private String studentId;
+
+    private String studentNumber;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String currentLevel;
+
+    private String status;
+
+    private String grade;
+
+    private double gradePoint;
+
+    private double finalScore;
+
+    private LocalDateTime enrollmentDate;
+}
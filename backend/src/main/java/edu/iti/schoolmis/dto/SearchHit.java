@@ -0,0 +1,24 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one ranked search result
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+
+    private String type; // STUDENT, TEACHER, COURSE
+
+    private String id;
+
+    private String title;
+
+    private String subtitle;
+
+    private double score;
+}
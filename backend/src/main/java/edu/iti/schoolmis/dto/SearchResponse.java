@@ -0,0 +1,25 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * DTO for one page of ranked search results
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponse {
+
+    private String query;
+
+    private int total;
+
+    private int page;
+
+    private int size;
+
+    private List<SearchHit> hits;
+}
@@ -0,0 +1,31 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the progress of a student import job
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportStatus {
+
+    private String jobId;
+
+    private String status; // RUNNING, COMPLETED, FAILED
+
+    private int rowsProcessed;
+
+    private int succeeded;
+
+    private int failed;
+
+    private String error;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,21 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * DTO for the combined student dashboard view
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentOverviewResponse {
+
+    private StudentResponse profile;
+
+    private List<EnrollmentOverview> activeEnrollments;
+
+    private double totalPaid;
+}
@@ -0,0 +1,24 @@
+package edu.iti.schoolmis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of an enrollment status transition
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransitionResult {
+
+    private String enrollmentId;
+
+    private String transition;
+
+    private boolean applied;
+
+    private String previousStatus;
+
+    private String status;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
@@ -19,6 +20,7 @@ public class Course {
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String courseCode;
 
     private String courseName;
@@ -37,6 +39,8 @@ public class Course {
 
     private int currentEnrollment;
 
+    private long waitlistSequence; // last waitlist position handed out
+
     private String semester;
 
     private boolean active;
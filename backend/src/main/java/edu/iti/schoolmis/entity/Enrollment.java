@@ -4,16 +4,21 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
- * Enrollment entity representing student course enrollments
+ * Enrollment entity representing student course enrollments.
+ * A student has one enrollment per course; enrolling again after a drop reactivates it.
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "enrollments")
+@CompoundIndex(name = "studentId_courseId", def = "{'studentId': 1, 'courseId': 1}", unique = true)
 public class Enrollment {
 
     @Id
@@ -21,6 +26,7 @@ public class Enrollment {
 
     private String studentId;
 
+    @Indexed
     private String courseId;
 
     private LocalDateTime enrollmentDate;
@@ -31,6 +37,8 @@ public class Enrollment {
 
     private double finalScore;
 
+    private int gradedCredits; // credit hours this grade currently contributes to the student's GPA
+
     private String status; // ACTIVE, COMPLETED, DROPPED, PENDING
 
     private LocalDateTime completedDate;
@@ -38,5 +46,32 @@ public class Enrollment {
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    /**
+     * Status transitions, each allowed only from its listed source statuses
+     */
+    public enum Transition {
+        ACTIVATE("ACTIVE", "PENDING"),
+        COMPLETE("COMPLETED", "ACTIVE"),
+        DROP("DROPPED", "PENDING", "ACTIVE"),
+        REENROLL("ACTIVE", "DROPPED");
+
+        private final String target;
+
+        private final List<String> sources;
+
+        Transition(String target, String... sources) {
+            this.target = target;
+            this.sources = List.of(sources);
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public List<String> getSources() {
+            return sources;
+        }
+    }
 }
 
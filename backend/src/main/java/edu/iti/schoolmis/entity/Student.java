@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,6 +17,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "students")
+@CompoundIndex(name = "active_studentId", def = "{'active': 1, 'studentId': 1}")
+@CompoundIndex(name = "currentLevel_studentId", def = "{'currentLevel': 1, 'studentId': 1}")
 public class Student {
 
     @Id
@@ -22,6 +26,7 @@ public class Student {
 
     private String userId;
 
+    @Indexed(unique = true)
     private String studentId;
 
     private LocalDate dateOfBirth;
@@ -44,6 +49,10 @@ public class Student {
 
     private double gpa;
 
+    private double gradePointSum; // sum of gradePoint * creditHours over graded enrollments
+
+    private int gradedCredits;
+
     private boolean active;
 
     private LocalDateTime createdAt;
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -16,11 +18,13 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "users")
+@CompoundIndex(name = "roles_id", def = "{'roles': 1, '_id': 1}")
 public class User {
 
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String email;
 
     private String password;
@@ -37,6 +41,8 @@ public class User {
 
     private boolean enabled;
 
+    private long tokenVersion; // bumped on role change so older access tokens are rejected
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -0,0 +1,35 @@
+package edu.iti.schoolmis.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+/**
+ * Waitlist entity: a student queued for a seat in a full course.
+ * Entries are removed when the student is promoted or leaves the queue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "waitlist")
+@CompoundIndex(name = "courseId_studentId", def = "{'courseId': 1, 'studentId': 1}", unique = true)
+@CompoundIndex(name = "courseId_position", def = "{'courseId': 1, 'position': 1}")
+public class WaitlistEntry {
+
+    @Id
+    private String id;
+
+    private String courseId;
+
+    @Indexed
+    private String studentId;
+
+    private long position; // increasing per course; lowest is next in line
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,11 @@
+package edu.iti.schoolmis.exception;
+
+/**
+ * Exception for enrolling in a course with no seats left
+ */
+public class CourseFullException extends RuntimeException {
+
+    public CourseFullException(String message) {
+        super(message);
+    }
+}
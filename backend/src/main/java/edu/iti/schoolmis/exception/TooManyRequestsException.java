@@ -0,0 +1,18 @@
+package edu.iti.schoolmis.exception;
+
+/**
+ * Exception for clients exceeding a rate limit; they may retry after the given delay
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
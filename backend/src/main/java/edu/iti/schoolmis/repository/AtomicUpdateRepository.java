@@ -0,0 +1,92 @@
+package edu.iti.schoolmis.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+/**
+ * Targeted field updates by id, issued as a single $set instead of find-then-save.
+ * Only the named fields are written, so concurrent edits to other fields are not lost.
+ */
+@Repository
+public class AtomicUpdateRepository {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Apply update to the document with the given id; returns false if no document matched
+     */
+    public boolean updateById(Class<?> entityClass, String id, Update update) {
+        UpdateResult result = mongoTemplate.updateFirst(byId(id), update, entityClass);
+        return result.getMatchedCount() > 0;
+    }
+
+    /**
+     * Apply update to the document with the given id only if it also matches condition;
+     * returns false if no document matched
+     */
+    public boolean updateByIdIf(Class<?> entityClass, String id, Criteria condition, Update update) {
+        UpdateResult result = mongoTemplate.updateFirst(byId(id).addCriteria(condition), update, entityClass);
+        return result.getMatchedCount() > 0;
+    }
+
+    /**
+     * Apply update to the document with the given id and return it as modified
+     */
+    public <T> Optional<T> updateByIdAndGet(Class<T> entityClass, String id, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(byId(id), update,
+                FindAndModifyOptions.options().returnNew(true), entityClass));
+    }
+
+    /**
+     * Apply update to the document with the given id and return it as it was before the update
+     */
+    public <T> Optional<T> updateByIdAndGetPrevious(Class<T> entityClass, String id, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(byId(id), update,
+                FindAndModifyOptions.options().returnNew(false), entityClass));
+    }
+
+    /**
+     * Apply update to the document with the given id only if it also matches condition.
+     * Returns the document as it was before the update, or empty if nothing matched.
+     */
+    public <T> Optional<T> updateByIdIfAndGetPrevious(Class<T> entityClass, String id, Criteria condition, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(byId(id).addCriteria(condition), update,
+                FindAndModifyOptions.options().returnNew(false), entityClass));
+    }
+
+    /**
+     * Apply update to the first document matching criteria and return it as modified, or empty if none matched
+     */
+    public <T> Optional<T> updateFirstAndGet(Class<T> entityClass, Criteria criteria, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), entityClass));
+    }
+
+    /**
+     * Apply update to every document matching criteria in one write; returns the number modified
+     */
+    public long updateAll(Class<?> entityClass, Criteria criteria, Update update) {
+        UpdateResult result = mongoTemplate.updateMulti(Query.query(criteria), update, entityClass);
+        return result.getModifiedCount();
+    }
+
+    /**
+     * Remove the document with the given id and return it, or empty if it was already gone.
+     * Only one of several concurrent callers gets the document back.
+     */
+    public <T> Optional<T> removeByIdAndGet(Class<T> entityClass, String id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(byId(id), entityClass));
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+}
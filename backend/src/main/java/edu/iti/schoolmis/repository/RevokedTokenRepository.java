@@ -0,0 +1,16 @@
+package edu.iti.schoolmis.repository;
+
+import edu.iti.schoolmis.entity.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for RevokedToken entity
+ */
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+    List<RevokedToken> findByRevokedAtAfter(LocalDateTime since);
+}
@@ -0,0 +1,125 @@
+package edu.iti.schoolmis.repository;
+
+import edu.iti.schoolmis.dto.EnrollmentOverview;
+import edu.iti.schoolmis.entity.Student;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Builds the student overview in one aggregation over the students collection.
+ * References between collections are stored as id strings, so each $lookup
+ * converts ids in its let variables before matching.
+ */
+@Repository
+public class StudentOverviewRepository {
+
+    /**
+     * Raw result of the overview pipeline
+     */
+    public record StudentOverview(Student student, List<EnrollmentOverview> enrollments, double totalPaid) {
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Load a student with active enrollments, course names, attendance and total completed payments
+     */
+    public Optional<StudentOverview> findOverview(String studentId) {
+        if (!ObjectId.isValid(studentId)) {
+            return Optional.empty();
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                stage("$match", new Document("_id", new ObjectId(studentId))),
+                stage("$project", new Document("student", "$$ROOT")
+                        .append("sid", new Document("$toString", "$_id"))),
+                stage("$lookup", new Document("from", "enrollments")
+                        .append("let", new Document("sid", "$sid"))
+                        .append("pipeline", enrollmentPipeline())
+                        .append("as", "enrollments")),
+                stage("$lookup", new Document("from", "payments")
+                        .append("let", new Document("sid", "$sid"))
+                        .append("pipeline", List.of(
+                                new Document("$match", new Document("$expr", new Document("$and", List.of(
+                                        new Document("$eq", List.of("$studentId", "$$sid")),
+                                        new Document("$eq", List.of("$status", "COMPLETED")))))),
+                                new Document("$group", new Document("_id", null)
+                                        .append("total", new Document("$sum", "$amount")))))
+                        .append("as", "payments")),
+                stage("$project", new Document("student", 1)
+                        .append("enrollments", 1)
+                        .append("totalPaid", new Document("$ifNull", List.of(
+                                new Document("$arrayElemAt", List.of("$payments.total", 0)), 0)))));
+
+        return Optional.ofNullable(
+                mongoTemplate.aggregate(aggregation, "students", StudentOverview.class).getUniqueMappedResult());
+    }
+
+    /**
+     * Active enrollments joined with their course and reduced attendance counts
+     */
+    private static List<Document> enrollmentPipeline() {
+        Document courseLookup = new Document("from", "courses")
+                .append("let", new Document("cid", new Document("$convert", new Document("input", "$courseId")
+                        .append("to", "objectId")
+                        .append("onError", null)
+                        .append("onNull", null))))
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("$expr", new Document("$eq", List.of("$_id", "$$cid")))),
+                        new Document("$project", new Document("courseCode", 1)
+                                .append("courseName", 1)
+                                .append("creditHours", 1))))
+                .append("as", "course");
+
+        Document attendanceLookup = new Document("from", "attendance")
+                .append("let", new Document("eid", new Document("$toString", "$_id")))
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("$expr", new Document("$eq", List.of("$enrollmentId", "$$eid")))),
+                        new Document("$group", new Document("_id", null)
+                                .append("total", new Document("$sum", 1))
+                                .append("present", new Document("$sum", new Document("$cond", List.of(
+                                        new Document("$eq", List.of("$status", "PRESENT")), 1, 0)))))))
+                .append("as", "attendance");
+
+        Document total = new Document("$ifNull", List.of(
+                new Document("$arrayElemAt", List.of("$attendance.total", 0)), 0));
+        Document present = new Document("$ifNull", List.of(
+                new Document("$arrayElemAt", List.of("$attendance.present", 0)), 0));
+
+        return List.of(
+                new Document("$match", new Document("$expr", new Document("$and", List.of(
+                        new Document("$eq", List.of("$studentId", "$$sid")),
+                        new Document("$eq", List.of("$status", "ACTIVE")))))),
+                new Document("$lookup", courseLookup),
+                new Document("$lookup", attendanceLookup),
+                new Document("$project", new Document("_id", 0)
+                        .append("enrollmentId", new Document("$toString", "$_id"))
+                        .append("courseId", 1)
+                        .append("courseCode", new Document("$arrayElemAt", List.of("$course.courseCode", 0)))
+                        .append("courseName", new Document("$arrayElemAt", List.of("$course.courseName", 0)))
+                        .append("creditHours", new Document("$ifNull", List.of(
+                                new Document("$arrayElemAt", List.of("$course.creditHours", 0)), 0)))
+                        .append("enrollmentDate", 1)
+                        .append("grade", 1)
+                        .append("attendanceRecords", total)
+                        .append("presentCount", present)
+                        .append("attendancePercentage", new Document("$cond", List.of(
+                                new Document("$eq", List.of(total, 0)),
+                                0.0,
+                                new Document("$divide", List.of(
+                                        new Document("$multiply", List.of(present, 100.0)), total)))))));
+    }
+
+    private static AggregationOperation stage(String operator, Document body) {
+        Document stage = new Document(operator, body);
+        return context -> stage;
+    }
+}
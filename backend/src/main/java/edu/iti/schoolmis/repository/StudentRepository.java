@@ -1,10 +1,13 @@
 package edu.iti.schoolmis.repository;
 
 import edu.iti.schoolmis.entity.Student;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for Student entity
@@ -15,5 +18,23 @@ public interface StudentRepository extends MongoRepository<Student, String> {
     Optional<Student> findByStudentId(String studentId);
     List<Student> findByActive(boolean active);
     List<Student> findByCurrentLevel(String currentLevel);
+
+    @Query(value = "{ 'active': ?0 }", sort = "{ 'studentId': 1 }")
+    List<Student> findPageByActive(boolean active, Pageable pageable);
+
+    @Query(value = "{ 'active': ?0, 'studentId': { '$gt': ?1 } }", sort = "{ 'studentId': 1 }")
+    List<Student> findPageByActiveAfter(boolean active, String afterStudentId, Pageable pageable);
+
+    @Query(value = "{ 'currentLevel': ?0 }", sort = "{ 'studentId': 1 }")
+    List<Student> findPageByCurrentLevel(String currentLevel, Pageable pageable);
+
+    @Query(value = "{ 'currentLevel': ?0, 'studentId': { '$gt': ?1 } }", sort = "{ 'studentId': 1 }")
+    List<Student> findPageByCurrentLevelAfter(String currentLevel, String afterStudentId, Pageable pageable);
+
+    /**
+     * Ids of the level's active students as a server-side cursor; close the stream when done
+     */
+    @Query(value = "{ 'currentLevel': ?0, 'active': true }", fields = "{ '_id': 1 }")
+    Stream<Student> streamIdsByCurrentLevel(String currentLevel);
 }
 
@@ -1,8 +1,12 @@
 package edu.iti.schoolmis.repository;
 
 import edu.iti.schoolmis.entity.User;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,7 +14,25 @@ import java.util.Optional;
  */
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
+
+    /**
+     * Fields needed for UserResponse; the password hash is never loaded for listings
+     */
+    String SUMMARY_FIELDS = "{ 'email': 1, 'firstName': 1, 'lastName': 1, 'phoneNumber': 1, "
+            + "'address': 1, 'roles': 1, 'enabled': 1, 'createdAt': 1 }";
+
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
 
+    @Query(value = "{}", fields = SUMMARY_FIELDS, sort = "{ '_id': 1 }")
+    List<User> findPage(Pageable pageable);
+
+    @Query(value = "{ '_id': { '$gt': ?0 } }", fields = SUMMARY_FIELDS, sort = "{ '_id': 1 }")
+    List<User> findPageAfter(ObjectId after, Pageable pageable);
+
+    @Query(value = "{ 'roles': ?0 }", fields = SUMMARY_FIELDS, sort = "{ '_id': 1 }")
+    List<User> findPageByRole(String role, Pageable pageable);
+
+    @Query(value = "{ 'roles': ?0, '_id': { '$gt': ?1 } }", fields = SUMMARY_FIELDS, sort = "{ '_id': 1 }")
+    List<User> findPageByRoleAfter(String role, ObjectId after, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package edu.iti.schoolmis.repository;
+
+import edu.iti.schoolmis.entity.WaitlistEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+/**
+ * Repository for WaitlistEntry entity
+ */
+@Repository
+public interface WaitlistRepository extends MongoRepository<WaitlistEntry, String> {
+    List<WaitlistEntry> findByCourseIdOrderByPositionAsc(String courseId);
+    List<WaitlistEntry> findByStudentId(String studentId);
+    long countByCourseIdAndPositionLessThan(String courseId, long position);
+}
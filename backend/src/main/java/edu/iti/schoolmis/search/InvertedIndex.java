@@ -0,0 +1,191 @@
+package edu.iti.schoolmis.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index ranked with BM25 over boosted fields.
+ * Query terms match whole terms, except the last, which also matches as a prefix
+ * so results keep up while the user is still typing. Documents matching more terms rank first.
+ * Readers share a read lock; adding or removing a document takes the write lock.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /**
+     * Ranked matches for one page, with the total number of matches
+     */
+    public record Results(int total, List<Hit> hits) {
+    }
+
+    public record Hit(SearchDocument document, double score) {
+    }
+
+    private record Entry(SearchDocument document, double length, Set<String> terms) {
+    }
+
+    private final NavigableMap<String, Map<String, Double>> postings = new TreeMap<>();
+
+    private final Map<String, Entry> documents = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private double totalLength;
+
+    /**
+     * Add document, replacing any earlier version with the same key
+     */
+    public void put(SearchDocument document) {
+        // Term frequency is weighted by field boost, so a name match outweighs a department match
+        Map<String, Double> weights = new HashMap<>();
+        double length = 0;
+        for (SearchDocument.Field field : document.fields()) {
+            List<String> terms = field.keyword()
+                    ? Tokenizer.tokenizeKeyword(field.text())
+                    : Tokenizer.tokenize(field.text());
+            for (String term : terms) {
+                weights.merge(term, field.boost(), Double::sum);
+            }
+            length += terms.size();
+        }
+
+        String key = document.key();
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(key, weight));
+            documents.put(key, new Entry(document, length, weights.keySet()));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the document with the given key, if present
+     */
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank documents against query and return limit hits starting at offset
+     */
+    public Results search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return new Results(0, List.of());
+        }
+
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, Integer> matchedTerms = new HashMap<>();
+        List<Hit> ranked = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : totalLength / documentCount;
+
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                Map<String, Double> termScores = new HashMap<>();
+                score(postings.get(term), 1.0, documentCount, averageLength, termScores);
+
+                if (i == terms.size() - 1 && term.length() >= MIN_PREFIX_LENGTH) {
+                    int expansions = 0;
+                    for (Map.Entry<String, Map<String, Double>> expansion
+                            : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                        if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        score(expansion.getValue(), PREFIX_WEIGHT, documentCount, averageLength, termScores);
+                    }
+                }
+
+                termScores.forEach((key, score) -> {
+                    scores.merge(key, score, Double::sum);
+                    matchedTerms.merge(key, 1, Integer::sum);
+                });
+            }
+
+            scores.forEach((key, score) -> {
+                double coordination = (double) matchedTerms.get(key) / terms.size();
+                ranked.add(new Hit(documents.get(key).document(), score * coordination));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        ranked.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(hit -> hit.document().title(), Comparator.nullsLast(Comparator.naturalOrder())));
+
+        int from = Math.min(Math.max(offset, 0), ranked.size());
+        int to = Math.min(from + Math.max(limit, 0), ranked.size());
+        return new Results(ranked.size(), List.copyOf(ranked.subList(from, to)));
+    }
+
+    /**
+     * Add the BM25 score of one term to each document in its postings, keeping the best per document
+     */
+    private void score(Map<String, Double> posting, double weight, int documentCount, double averageLength,
+                       Map<String, Double> termScores) {
+        if (posting == null || posting.isEmpty()) {
+            return;
+        }
+        double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+        posting.forEach((key, frequency) -> {
+            double length = documents.get(key).length();
+            double norm = averageLength == 0 ? 1 : 1 - B + B * length / averageLength;
+            double score = weight * idf * frequency * (K1 + 1) / (frequency + K1 * norm);
+            termScores.merge(key, score, Math::max);
+        });
+    }
+
+    private void removeLocked(String key) {
+        Entry existing = documents.remove(key);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<String, Double> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(key);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= existing.length();
+    }
+}
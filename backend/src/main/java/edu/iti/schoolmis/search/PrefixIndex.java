@@ -0,0 +1,136 @@
+package edu.iti.schoolmis.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory index answering "which documents have a term starting with this prefix".
+ * Each indexed term is stored once per document as "term\0key" in a skip list, so a lookup
+ * is a seek to the prefix followed by a short ordered scan; exact matches sort first.
+ * Entries are also kept per document type, so a typed lookup scans only documents of that type.
+ * Reads take no locks; updates to the same document are serialized per key.
+ */
+public class PrefixIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private static final int MAX_SCANNED = 1000;
+
+    private final ConcurrentSkipListMap<String, SearchDocument> entries = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<String, SearchDocument>> entriesByType =
+            new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Set<String>> entriesByDocument = new ConcurrentHashMap<>();
+
+    /**
+     * Add document, replacing the terms of any earlier version with the same key
+     */
+    public void put(SearchDocument document) {
+        String key = document.key();
+        Set<String> current = new HashSet<>();
+        for (String term : terms(document)) {
+            current.add(term + SEPARATOR + key);
+        }
+
+        ConcurrentSkipListMap<String, SearchDocument> typed =
+                entriesByType.computeIfAbsent(document.type(), t -> new ConcurrentSkipListMap<>());
+        entriesByDocument.compute(key, (k, previous) -> {
+            current.forEach(entry -> {
+                entries.put(entry, document);
+                typed.put(entry, document);
+            });
+            if (previous != null) {
+                previous.stream().filter(entry -> !current.contains(entry)).forEach(entry -> {
+                    entries.remove(entry);
+                    typed.remove(entry);
+                });
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Remove the document with the given key, if present
+     */
+    public void remove(String key) {
+        entriesByDocument.computeIfPresent(key, (k, previous) -> {
+            previous.forEach(entries::remove);
+            ConcurrentSkipListMap<String, SearchDocument> typed = entriesByType.get(typeOf(key));
+            if (typed != null) {
+                previous.forEach(typed::remove);
+            }
+            return null;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Up to limit distinct documents with a term starting with prefix, optionally of one type
+     */
+    public List<SearchDocument> complete(String prefix, String type, int limit) {
+        String normalized = Tokenizer.normalizePhrase(prefix);
+        List<SearchDocument> matches = new ArrayList<>();
+        if (normalized.isEmpty() || limit <= 0) {
+            return matches;
+        }
+
+        ConcurrentSkipListMap<String, SearchDocument> candidates = type != null ? entriesByType.get(type) : entries;
+        if (candidates == null) {
+            return matches;
+        }
+
+        Set<String> seen = new LinkedHashSet<>();
+        int scanned = 0;
+        for (Map.Entry<String, SearchDocument> entry
+                : candidates.subMap(normalized, true, normalized + Character.MAX_VALUE, false).entrySet()) {
+            if (++scanned > MAX_SCANNED) {
+                break;
+            }
+            SearchDocument document = entry.getValue();
+            if (seen.add(document.key())) {
+                matches.add(document);
+                if (matches.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Type part of a document key built by {@link SearchDocument#key(String, String)}
+     */
+    private static String typeOf(String key) {
+        return key.substring(0, key.indexOf(':'));
+    }
+
+    /**
+     * Single terms of each field, identifiers without separators and the whole phrase of multi-word text
+     */
+    private static Set<String> terms(SearchDocument document) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (SearchDocument.Field field : document.fields()) {
+            List<String> tokens = field.keyword()
+                    ? Tokenizer.tokenizeKeyword(field.text())
+                    : Tokenizer.tokenize(field.text());
+            terms.addAll(tokens);
+            if (!field.keyword() && tokens.size() > 1) {
+                terms.add(String.join(" ", tokens));
+            }
+        }
+        terms.removeIf(term -> term.length() > MAX_TERM_LENGTH);
+        return terms;
+    }
+}
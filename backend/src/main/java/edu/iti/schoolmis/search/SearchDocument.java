@@ -0,0 +1,31 @@
+package edu.iti.schoolmis.search;
+
+import java.util.List;
+
+/**
+ * One searchable record: what to show in results and the weighted fields to match against
+ */
+public record SearchDocument(String type, String id, String title, String subtitle, List<Field> fields) {
+
+    /**
+     * Text matched by queries; keyword fields also match their identifier written without separators
+     */
+    public record Field(String text, double boost, boolean keyword) {
+
+        public static Field text(String text, double boost) {
+            return new Field(text, boost, false);
+        }
+
+        public static Field keyword(String text, double boost) {
+            return new Field(text, boost, true);
+        }
+    }
+
+    public String key() {
+        return key(type, id);
+    }
+
+    public static String key(String type, String id) {
+        return type + ":" + id;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.iti.schoolmis.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into lowercase, accent-free terms of letters and digits
+ */
+public final class Tokenizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Terms of free text in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String term : SEPARATORS.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Terms of an identifier such as "CS-101": its parts plus the joined form "cs101"
+     */
+    public static List<String> tokenizeKeyword(String text) {
+        List<String> terms = tokenize(text);
+        if (terms.size() > 1) {
+            terms.add(String.join("", terms));
+        }
+        return terms;
+    }
+
+    /**
+     * Terms of free text joined by single spaces, e.g. "  Zoë  SMITH" becomes "zoe smith"
+     */
+    public static String normalizePhrase(String text) {
+        return String.join(" ", tokenize(text));
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,76 @@
+package edu.iti.schoolmis.security;
+
+import lombok.Getter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Result of benchmarking BCrypt on the running machine.
+ * Picks the highest work factor whose hash time stays within the latency target.
+ */
+@Getter
+public final class BCryptCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private static final int SAMPLE_RUNS = 3;
+
+    private final int strength;
+
+    private final double hashMs;
+
+    private final long targetMs;
+
+    private final boolean calibrated;
+
+    private BCryptCalibration(int strength, double hashMs, long targetMs, boolean calibrated) {
+        this.strength = strength;
+        this.hashMs = hashMs;
+        this.targetMs = targetMs;
+        this.calibrated = calibrated;
+    }
+
+    /**
+     * Use a configured work factor without benchmarking
+     */
+    public static BCryptCalibration fixed(int strength) {
+        return new BCryptCalibration(strength, measure(strength), 0, false);
+    }
+
+    /**
+     * Benchmark hashing and choose a work factor between min and max that meets the target.
+     * Each extra round doubles the cost, so the choice is extrapolated from the minimum
+     * and then confirmed with one measurement at the chosen strength.
+     */
+    public static BCryptCalibration calibrate(int minStrength, int maxStrength, long targetMs) {
+        // Warm up so the first measurement is not dominated by class loading and JIT
+        measure(minStrength);
+
+        int strength = minStrength;
+        double hashMs = measure(minStrength);
+        while (strength < maxStrength && hashMs * 2 <= targetMs) {
+            strength++;
+            hashMs *= 2;
+        }
+
+        if (strength > minStrength) {
+            hashMs = measure(strength);
+            if (hashMs > targetMs) {
+                strength--;
+                hashMs /= 2;
+            }
+        }
+
+        return new BCryptCalibration(strength, hashMs, targetMs, true);
+    }
+
+    private static double measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLE_RUNS; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+}
@@ -1,6 +1,9 @@
 package edu.iti.schoolmis.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -9,15 +12,22 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 /**
- * JWT filter for validating tokens in requests
+ * JWT filter for validating tokens and populating the SecurityContext
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtTokenProvider tokenProvider;
+    private JwtVerificationEngine verificationEngine;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -25,9 +35,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
-                // Authentication will be set by other components
+            if (StringUtils.hasText(jwt)) {
+                Optional<JwtPrincipal> token = verificationEngine.verify(jwt)
+                        .filter(t -> !t.isRefreshToken())
+                        .filter(t -> !tokenDenylist.isRevoked(t.getTokenId()));
+                Optional<UserPrincipal> user = token.flatMap(this::resolvePrincipal);
+
+                if (user.isPresent()) {
+                    // The verified token is kept as credentials so it can be revoked on logout
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            user.get(), token.get(), user.get().getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -36,6 +56,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Resolve the user behind a verified token. Identity and roles come from the token claims;
+     * the user store is only consulted, through the principal cache (at most once per TTL), to
+     * check that the user is still enabled and the token is not older than the user's current
+     * token version. A token newer than the cached entry means the roles changed on another
+     * node, so the entry is reloaded. Tokens issued without the claims use the cached principal.
+     */
+    private Optional<UserPrincipal> resolvePrincipal(JwtPrincipal token) {
+        Optional<UserPrincipal> current = userPrincipalCache.get(token.getSubject());
+        if (current.isPresent() && token.getTokenVersion() > current.get().getTokenVersion()) {
+            userPrincipalCache.invalidate(token.getSubject());
+            current = userPrincipalCache.get(token.getSubject());
+        }
+        return current
+                .filter(UserPrincipal::isEnabled)
+                .filter(user -> token.getTokenVersion() >= user.getTokenVersion())
+                .map(user -> token.getUserId() != null ? UserPrincipal.from(token) : user);
+    }
+
     /**
      * Extract JWT token from request header
      */
@@ -47,4 +86,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 }
-
@@ -0,0 +1,78 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.entity.User;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable result of a verified JWT: token id, subject, expiry and claims.
+ * Tokens issued with {@link JwtTokenProvider#generateToken(User)} also expose
+ * the user id, roles and token version without any database lookup.
+ */
+@Getter
+public final class JwtPrincipal {
+
+    private final String subject;
+
+    private final Instant expiresAt;
+
+    private final String tokenId;
+
+    private final Map<String, Object> claims;
+
+    private final String userId;
+
+    private final Set<User.Role> roles;
+
+    private final long tokenVersion;
+
+    public JwtPrincipal(String tokenId, String subject, Instant expiresAt, Map<String, Object> claims) {
+        this.tokenId = tokenId;
+        this.subject = subject;
+        this.expiresAt = expiresAt;
+        this.claims = Collections.unmodifiableMap(new HashMap<>(claims));
+
+        Object uid = claims.get(JwtTokenProvider.CLAIM_USER_ID);
+        this.userId = uid != null ? uid.toString() : null;
+        this.roles = parseRoles(claims.get(JwtTokenProvider.CLAIM_ROLES));
+        Object version = claims.get(JwtTokenProvider.CLAIM_VERSION);
+        this.tokenVersion = version instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /**
+     * Check whether the token has expired at the given instant
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    /**
+     * Check whether this is a refresh token, which must not be used for API access
+     */
+    public boolean isRefreshToken() {
+        return JwtTokenProvider.TYPE_REFRESH.equals(claims.get(JwtTokenProvider.CLAIM_TYPE));
+    }
+
+    private static Set<User.Role> parseRoles(Object value) {
+        if (!(value instanceof Collection<?> names) || names.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        EnumSet<User.Role> roles = EnumSet.noneOf(User.Role.class);
+        for (Object name : names) {
+            try {
+                roles.add(User.Role.valueOf(String.valueOf(name)));
+            } catch (IllegalArgumentException ignored) {
+                // Unknown role names grant nothing
+            }
+        }
+        return Collections.unmodifiableSet(roles);
+    }
+}
@@ -1,15 +1,22 @@
 package edu.iti.schoolmis.security;
 
+import edu.iti.schoolmis.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * JWT utility for token generation and validation
@@ -17,6 +24,16 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
+    public static final String CLAIM_USER_ID = "uid";
+
+    public static final String CLAIM_ROLES = "roles";
+
+    public static final String CLAIM_VERSION = "ver";
+
+    public static final String CLAIM_TYPE = "typ";
+
+    public static final String TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -26,8 +43,23 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long refreshTokenExpirationInMs;
 
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * Build the signing key and parser once; both are immutable and thread-safe
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
     /**
@@ -45,6 +77,42 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Generate JWT token carrying user id, roles and token version,
+     * so authorization can be decided from the token alone
+     */
+    public String generateToken(User user) {
+        return generateToken(user.getEmail(), user.getId(), user.getRoles(), user.getTokenVersion());
+    }
+
+    /**
+     * Generate JWT token for an authenticated principal
+     */
+    public String generateToken(UserPrincipal principal) {
+        return generateToken(principal.getEmail(), principal.getId(), principal.getRoles(),
+                principal.getTokenVersion());
+    }
+
+    private String generateToken(String email, String userId, Set<User.Role> userRoles, long tokenVersion) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
+
+        List<String> roles = userRoles == null
+                ? Collections.emptyList()
+                : userRoles.stream().map(Enum::name).sorted().toList();
+
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(email)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_VERSION, tokenVersion)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
     /**
      * Generate refresh token
      */
@@ -53,24 +121,35 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + refreshTokenExpirationInMs);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
+                .claim(CLAIM_TYPE, TYPE_REFRESH)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Access token lifetime in milliseconds
+     */
+    public long getAccessTokenExpirationInMs() {
+        return jwtExpirationInMs;
+    }
+
+    /**
+     * Verify signature and expiry, returning the token claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is not valid.
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
     /**
      * Get email from token
      */
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
+        return parseClaims(token).getSubject();
     }
 
     /**
@@ -78,15 +157,10 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-
+            parseClaims(token);
             return true;
         } catch (Exception ex) {
             return false;
         }
     }
 }
-
@@ -0,0 +1,107 @@
+package edu.iti.schoolmis.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies each JWT once and caches the resulting principal until the token expires.
+ * Entries are keyed by a SHA-256 digest of the token so raw tokens are never held in memory.
+ */
+@Component
+public class JwtVerificationEngine {
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Value("${jwt.verification-cache.max-size:10000}")
+    private int maxCacheSize;
+
+    private final Map<String, JwtPrincipal> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Verify token, returning the cached principal when the same token was seen before
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        String key = digest(token);
+
+        JwtPrincipal cached = cache.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            cache.remove(key, cached);
+            return Optional.empty();
+        }
+
+        JwtPrincipal principal;
+        try {
+            Claims claims = tokenProvider.parseClaims(token);
+            Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+            principal = new JwtPrincipal(claims.getId(), claims.getSubject(), expiresAt, claims);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+
+        if (cache.size() >= maxCacheSize) {
+            evict(now);
+        }
+        cache.put(key, principal);
+
+        return Optional.of(principal);
+    }
+
+    /**
+     * Drop a token from the cache, e.g. after it has been revoked
+     */
+    public void invalidate(String token) {
+        cache.remove(digest(token));
+    }
+
+    /**
+     * Number of verified tokens currently cached
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove expired entries, then arbitrary ones until the cache is back under its bound
+     */
+    private void evict(Instant now) {
+        cache.values().removeIf(principal -> principal.isExpired(now));
+
+        Iterator<String> keys = cache.keySet().iterator();
+        while (cache.size() >= maxCacheSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-account and per-client-address throttling for password checks.
+ * Runs before any database or BCrypt work so credential stuffing is shed cheaply.
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${security.login-throttle.account.capacity:10}")
+    private int accountCapacity;
+
+    @Value("${security.login-throttle.account.refill-per-minute:2}")
+    private double accountRefillPerMinute;
+
+    @Value("${security.login-throttle.address.capacity:50}")
+    private int addressCapacity;
+
+    @Value("${security.login-throttle.address.refill-per-minute:30}")
+    private double addressRefillPerMinute;
+
+    @Value("${security.login-throttle.stripes:16}")
+    private int stripes;
+
+    @Value("${security.login-throttle.max-entries:100000}")
+    private int maxEntries;
+
+    private TokenBucketLimiter accountLimiter;
+
+    private TokenBucketLimiter addressLimiter;
+
+    private final LongAdder allowed = new LongAdder();
+
+    private final LongAdder shedByAccount = new LongAdder();
+
+    private final LongAdder shedByAddress = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        accountLimiter = new TokenBucketLimiter(accountCapacity, accountRefillPerMinute / 60, stripes, maxEntries);
+        addressLimiter = new TokenBucketLimiter(addressCapacity, addressRefillPerMinute / 60, stripes, maxEntries);
+    }
+
+    /**
+     * Take one attempt for the account and client address, or throw if either is over its limit
+     */
+    public void acquire(String email, String clientAddress) {
+        if (clientAddress != null) {
+            long waitNanos = addressLimiter.tryAcquire(clientAddress);
+            if (waitNanos > 0) {
+                shedByAddress.increment();
+                throw new TooManyRequestsException("Too many login attempts, please retry later", toSeconds(waitNanos));
+            }
+        }
+
+        if (email != null) {
+            long waitNanos = accountLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (waitNanos > 0) {
+                shedByAccount.increment();
+                throw new TooManyRequestsException("Too many login attempts, please retry later", toSeconds(waitNanos));
+            }
+        }
+
+        allowed.increment();
+    }
+
+    /**
+     * Drop buckets that have refilled, bounding memory
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-interval-ms:60000}")
+    public void sweep() {
+        accountLimiter.sweep();
+        addressLimiter.sweep();
+    }
+
+    /**
+     * Allowed and shed attempt counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("shedByAccount", shedByAccount.sum());
+        stats.put("shedByAddress", shedByAddress.sum());
+        stats.put("trackedAccounts", accountLimiter.size());
+        stats.put("trackedAddresses", addressLimiter.size());
+        return stats;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos) + 1);
+    }
+}
@@ -0,0 +1,215 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing on a dedicated, size-limited pool with a bounded queue.
+ * When the queue is full, callers get a {@link ServiceBusyException} immediately
+ * instead of tying up request threads, so cheap endpoints stay responsive.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private BCryptCalibration bcryptCalibration;
+
+    @Value("${security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.password-hashing.timeout-ms:10000}")
+    private long timeoutInMs;
+
+    @Value("${security.password-hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder hashCount = new LongAdder();
+
+    private final LongAdder hashNanos = new LongAdder();
+
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Hash raw password on the hashing pool
+     */
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hash many raw passwords on the hashing pool, returning hashes in input order.
+     * At most one pool's worth of them is queued at a time, so interactive logins and
+     * registrations still find room in the queue while a bulk upload is being hashed.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = executor.getMaximumPoolSize();
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> inFlight = new ArrayDeque<>();
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                Callable<String> task = () -> passwordEncoder.encode(rawPassword);
+                Future<String> future = inFlight.size() < window ? tryEnqueue(task) : null;
+                while (future == null) {
+                    if (inFlight.isEmpty()) {
+                        rejectedCount.increment();
+                        throw new ServiceBusyException("Too many authentication requests, please retry shortly",
+                                retryAfterSeconds);
+                    }
+                    hashes.add(await(inFlight.poll()));
+                    future = tryEnqueue(task);
+                }
+                inFlight.add(future);
+            }
+            while (!inFlight.isEmpty()) {
+                hashes.add(await(inFlight.poll()));
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        return hashes;
+    }
+
+    /**
+     * Check raw password against stored hash on the hashing pool
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Check whether a stored hash was made with a weaker work factor than the current one
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Current queue depth, pool usage, hash latency and BCrypt calibration
+     */
+    public Map<String, Object> getStats() {
+        long count = hashCount.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("completed", count);
+        stats.put("rejected", rejectedCount.sum());
+        stats.put("averageHashMs", count == 0 ? 0.0 : hashNanos.sum() / (double) count / 1_000_000);
+        stats.put("maxHashMs", maxHashNanos.get() / 1_000_000.0);
+        stats.put("bcryptStrength", bcryptCalibration.getStrength());
+        stats.put("bcryptCalibrated", bcryptCalibration.isCalibrated());
+        stats.put("bcryptCalibrationHashMs", bcryptCalibration.getHashMs());
+        stats.put("bcryptTargetMs", bcryptCalibration.getTargetMs());
+        return stats;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw new ServiceBusyException("Too many authentication requests, please retry shortly",
+                    retryAfterSeconds, e);
+        }
+        return await(future);
+    }
+
+    /**
+     * Queue task on the pool, or return null if the queue is full
+     */
+    private <T> Future<T> tryEnqueue(Callable<T> task) {
+        try {
+            return executor.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutInMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCount.increment();
+            throw new ServiceBusyException("Authentication timed out, please retry shortly",
+                    retryAfterSeconds, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private <T> T timed(Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            hashCount.increment();
+            hashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package edu.iti.schoolmis.security;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token-bucket rate limiter keyed by string.
+ * Buckets live in independent stripes; a bucket that has refilled completely carries
+ * no state worth keeping, so {@link #sweep()} drops it and memory stays bounded.
+ * A new key arriving at a full stripe evicts the most refilled of a few sampled buckets,
+ * so every key is always tracked and the cost per new key stays constant.
+ */
+public final class TokenBucketLimiter {
+
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private final long fullRefillNanos;
+
+    private final int maxEntriesPerStripe;
+
+    private final List<Map<String, Bucket>> stripes;
+
+    public TokenBucketLimiter(int capacity, double refillPerSecond, int stripeCount, int maxEntries) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000.0;
+        this.fullRefillNanos = (long) Math.ceil(capacity / tokensPerNano);
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / count);
+        this.stripes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stripes.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Take one token for key.
+     * Returns 0 if allowed, otherwise the number of nanoseconds until a token is available.
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Map<String, Bucket> stripe = stripeFor(key);
+
+        Bucket bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxEntriesPerStripe) {
+                evictOne(stripe, now);
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * Remove buckets that have refilled completely
+     */
+    public void sweep() {
+        long now = System.nanoTime();
+        for (Map<String, Bucket> stripe : stripes) {
+            sweep(stripe, now);
+        }
+    }
+
+    /**
+     * Number of buckets currently tracked
+     */
+    public int size() {
+        int size = 0;
+        for (Map<String, Bucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private void sweep(Map<String, Bucket> stripe, long now) {
+        Iterator<Bucket> buckets = stripe.values().iterator();
+        while (buckets.hasNext()) {
+            if (now - buckets.next().state.get().updatedAt >= fullRefillNanos) {
+                buckets.remove();
+            }
+        }
+    }
+
+    /**
+     * Evict the bucket with the oldest update among a few sampled ones; it has refilled the most,
+     * so forgetting it gives its key back the fewest tokens
+     */
+    private void evictOne(Map<String, Bucket> stripe, long now) {
+        Map.Entry<String, Bucket> victim = null;
+        Iterator<Map.Entry<String, Bucket>> entries = stripe.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLES && entries.hasNext(); i++) {
+            Map.Entry<String, Bucket> entry = entries.next();
+            long updatedAt = entry.getValue().state.get().updatedAt;
+            if (now - updatedAt >= fullRefillNanos) {
+                victim = entry;
+                break;
+            }
+            if (victim == null || updatedAt < victim.getValue().state.get().updatedAt) {
+                victim = entry;
+            }
+        }
+        if (victim != null) {
+            stripe.remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private Map<String, Bucket> stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes.get(hash & (stripes.size() - 1));
+    }
+
+    private final class Bucket {
+
+        private final AtomicReference<State> state;
+
+        private Bucket(double tokens, long now) {
+            this.state = new AtomicReference<>(new State(tokens, now));
+        }
+
+        private long tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = Math.min(capacity, current.tokens + Math.max(0, now - current.updatedAt) * tokensPerNano);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / tokensPerNano);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.updatedAt)))) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+}
@@ -0,0 +1,126 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.entity.RevokedToken;
+import edu.iti.schoolmis.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Shared denylist of revoked or already-used token ids.
+ * MongoDB holds the authoritative list; each node mirrors it in a local Bloom filter
+ * so the common "not revoked" answer needs no database round trip.
+ * The filter only learns about revocations made on other nodes at the next sync, so such a
+ * token is still accepted here for up to security.token-denylist.sync-interval-ms (30 s by
+ * default). Refresh tokens are not affected: their one-time use is enforced by the insert in
+ * {@link #revoke}, which always goes to the database.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${security.token-denylist.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${security.token-denylist.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter bloomFilter;
+
+    private volatile LocalDateTime lastSync;
+
+    private volatile boolean loaded;
+
+    @PostConstruct
+    void init() {
+        // Loaded by the first scheduled rebuild; until then every check goes to the database
+        bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+        lastSync = LocalDateTime.now();
+    }
+
+    /**
+     * Check whether token id has been revoked.
+     * A Bloom filter negative is trusted, so revocations from other nodes apply from the next sync.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (loaded && !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Revoke token id until the given expiry.
+     * Returns false if it was already revoked, which makes one-time use of refresh tokens atomic.
+     */
+    public boolean revoke(String jti, String subject, Instant expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiry = expiresAt != null
+                ? LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault())
+                : now.plusDays(1);
+
+        bloomFilter.put(jti);
+        try {
+            revokedTokenRepository.insert(new RevokedToken(jti, subject, expiry, now));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Pull token ids revoked on other nodes since the last sync
+     */
+    @Scheduled(fixedDelayString = "${security.token-denylist.sync-interval-ms:30000}",
+            initialDelayString = "${security.token-denylist.sync-interval-ms:30000}")
+    public void sync() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            // Overlap the window a little to tolerate clock skew between nodes
+            LocalDateTime since = lastSync.minusMinutes(1);
+            LocalDateTime now = LocalDateTime.now();
+            BloomFilter filter = bloomFilter;
+            revokedTokenRepository.findByRevokedAtAfter(since)
+                    .forEach(token -> filter.put(token.getId()));
+            lastSync = now;
+        } catch (Exception ex) {
+            log.warn("Could not sync token denylist", ex);
+        }
+    }
+
+    /**
+     * Rebuild the Bloom filter from unexpired entries so expired ids stop occupying bits
+     */
+    @Scheduled(fixedDelayString = "${security.token-denylist.rebuild-interval-ms:3600000}", initialDelay = 0)
+    public void rebuild() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            BloomFilter filter = new BloomFilter(expectedEntries, falsePositiveRate);
+            revokedTokenRepository.findByExpiresAtAfter(now)
+                    .forEach(token -> filter.put(token.getId()));
+            bloomFilter = filter;
+            lastSync = now;
+            loaded = true;
+        } catch (Exception ex) {
+            log.warn("Could not rebuild token denylist", ex);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.entity.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of an authenticated user, stored in the SecurityContext.
+ * Never holds the password hash.
+ */
+@Getter
+public final class UserPrincipal {
+
+    private final String id;
+
+    private final String email;
+
+    private final String firstName;
+
+    private final String lastName;
+
+    private final String phoneNumber;
+
+    private final String address;
+
+    private final Set<User.Role> roles;
+
+    private final boolean enabled;
+
+    private final LocalDateTime createdAt;
+
+    private final long tokenVersion;
+
+    private final List<GrantedAuthority> authorities;
+
+    private UserPrincipal(String id, String email, String firstName, String lastName, String phoneNumber,
+                          String address, Set<User.Role> roles, boolean enabled, LocalDateTime createdAt,
+                          long tokenVersion) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.phoneNumber = phoneNumber;
+        this.address = address;
+        this.roles = roles == null || roles.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(roles));
+        this.enabled = enabled;
+        this.createdAt = createdAt;
+        this.tokenVersion = tokenVersion;
+        this.authorities = this.roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.getAuthority()))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Create principal from the claims of a verified access token, without any lookup.
+     * Only id, email, roles and token version are known; profile fields are null.
+     */
+    public static UserPrincipal from(JwtPrincipal token) {
+        return new UserPrincipal(token.getUserId(), token.getSubject(), null, null, null, null,
+                token.getRoles(), true, null, token.getTokenVersion());
+    }
+
+    /**
+     * Create principal from User entity
+     */
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getPhoneNumber(), user.getAddress(), user.getRoles(), user.isEnabled(),
+                user.getCreatedAt(), user.getTokenVersion());
+    }
+}
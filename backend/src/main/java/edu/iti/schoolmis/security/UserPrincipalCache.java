@@ -0,0 +1,103 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.entity.User;
+import edu.iti.schoolmis.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process near-cache of user principals keyed by email.
+ * Entries expire after a fixed TTL and the cache is bounded in size; writers that
+ * change a user's profile or credentials must call {@link #invalidate(String)}.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${security.user-cache.ttl-ms:300000}")
+    private long ttlInMs;
+
+    @Value("${security.user-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Get principal by email, loading it from the repository on a miss
+     */
+    public Optional<UserPrincipal> get(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(email);
+        if (entry != null && entry.expiresAt > now) {
+            return Optional.of(entry.principal);
+        }
+
+        Optional<UserPrincipal> loaded = userRepository.findByEmail(email).map(UserPrincipal::from);
+        loaded.ifPresentOrElse(
+                principal -> put(email, principal, now),
+                () -> cache.remove(email));
+
+        return loaded;
+    }
+
+    /**
+     * Replace cached principal with the given user's current state.
+     * Used on role changes so that tokens with an older version are rejected on this node.
+     */
+    public void refresh(User user) {
+        put(user.getEmail(), UserPrincipal.from(user), System.currentTimeMillis());
+    }
+
+    /**
+     * Drop cached principal for the given email
+     */
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.remove(email);
+        }
+    }
+
+    /**
+     * Drop every cached principal
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private void put(String email, UserPrincipal principal, long now) {
+        if (cache.size() >= maxSize) {
+            cache.values().removeIf(e -> e.expiresAt <= now);
+
+            Iterator<String> keys = cache.keySet().iterator();
+            while (cache.size() >= maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        cache.put(email, new Entry(principal, now + ttlInMs));
+    }
+
+    private static final class Entry {
+
+        private final UserPrincipal principal;
+
+        private final long expiresAt;
+
+        private Entry(UserPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
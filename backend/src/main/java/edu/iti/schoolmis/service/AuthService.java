@@ -8,13 +8,25 @@ import edu.iti.schoolmis.entity.User;
 import edu.iti.schoolmis.exception.DuplicateResourceException;
 import edu.iti.schoolmis.exception.InvalidCredentialsException;
 import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
 import edu.iti.schoolmis.repository.UserRepository;
+import edu.iti.schoolmis.security.JwtPrincipal;
 import edu.iti.schoolmis.security.JwtTokenProvider;
+import edu.iti.schoolmis.security.LoginThrottle;
+import edu.iti.schoolmis.security.PasswordHashingExecutor;
+import edu.iti.schoolmis.security.TokenDenylist;
+import edu.iti.schoolmis.security.UserPrincipal;
+import edu.iti.schoolmis.security.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,25 +38,35 @@ public class AuthService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AtomicUpdateRepository atomicUpdateRepository;
+
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private SearchService searchService;
 
     /**
      * Register a new user
      */
     public UserResponse register(RegisterRequest request) {
-        // Check if user already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new DuplicateResourceException("Email already exists");
-        }
-
         // Create new user
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingExecutor.encode(request.getPassword()));
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setPhoneNumber(request.getPhoneNumber());
@@ -63,7 +85,14 @@ public class AuthService {
                 ". Valid roles are: STUDENT, TEACHER, ENROLLMENT_OFFICER, ADMIN");
         }
 
-        User savedUser = userRepository.save(user);
+        // Unique email index rejects duplicates in the same round trip as the insert
+        User savedUser;
+        try {
+            savedUser = userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateResourceException("Email already exists", e);
+        }
+        searchService.indexNewUsers(List.of(savedUser));
 
         return mapUserToResponse(savedUser);
     }
@@ -71,7 +100,10 @@ public class AuthService {
     /**
      * Login user and generate JWT token
      */
-    public LoginResponse login(LoginRequest request) {
+    public LoginResponse login(LoginRequest request, String clientAddress) {
+        // Shed over-limit attempts before any database or hashing work
+        loginThrottle.acquire(request.getEmail(), clientAddress);
+
         Optional<User> userOpt = userRepository.findByEmail(request.getEmail());
 
         if (userOpt.isEmpty()) {
@@ -80,7 +112,7 @@ public class AuthService {
 
         User user = userOpt.get();
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingExecutor.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Invalid email or password");
         }
 
@@ -88,19 +120,86 @@ public class AuthService {
             throw new InvalidCredentialsException("User account is disabled");
         }
 
+        // Re-hash with the current work factor while the raw password is at hand. Only the hash is
+        // written, and only if it is unchanged, so concurrent role or password changes are kept.
+        if (passwordHashingExecutor.needsRehash(user.getPassword())) {
+            Update update = new Update()
+                    .set("password", passwordHashingExecutor.encode(request.getPassword()))
+                    .set("updatedAt", LocalDateTime.now());
+            atomicUpdateRepository.updateByIdIf(User.class, user.getId(),
+                    Criteria.where("password").is(user.getPassword()), update);
+        }
+
         // Generate tokens
-        String accessToken = jwtTokenProvider.generateToken(request.getEmail());
+        String accessToken = jwtTokenProvider.generateToken(user);
         String refreshToken = jwtTokenProvider.generateRefreshToken(request.getEmail());
 
         return new LoginResponse(
             accessToken,
             refreshToken,
             "Bearer",
-            86400000, // 24 hours
+            jwtTokenProvider.getAccessTokenExpirationInMs(),
             mapUserToResponse(user)
         );
     }
 
+    /**
+     * Exchange a refresh token for a new token pair.
+     * Each refresh token is single-use: it is recorded in the denylist before new tokens are issued.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtTokenProvider.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Invalid or expired refresh token");
+        }
+
+        if (!JwtTokenProvider.TYPE_REFRESH.equals(claims.get(JwtTokenProvider.CLAIM_TYPE)) || claims.getId() == null) {
+            throw new InvalidCredentialsException("Invalid or expired refresh token");
+        }
+
+        if (tokenDenylist.isRevoked(claims.getId())) {
+            throw new InvalidCredentialsException("Refresh token has already been used");
+        }
+
+        UserPrincipal principal = userPrincipalCache.get(claims.getSubject())
+                .filter(UserPrincipal::isEnabled)
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid or expired refresh token"));
+
+        if (!tokenDenylist.revoke(claims.getId(), claims.getSubject(), claims.getExpiration().toInstant())) {
+            throw new InvalidCredentialsException("Refresh token has already been used");
+        }
+
+        return new LoginResponse(
+            jwtTokenProvider.generateToken(principal),
+            jwtTokenProvider.generateRefreshToken(principal.getEmail()),
+            "Bearer",
+            jwtTokenProvider.getAccessTokenExpirationInMs(),
+            mapPrincipalToResponse(principal)
+        );
+    }
+
+    /**
+     * Revoke the current access token and, if given, the refresh token
+     */
+    public void logout(JwtPrincipal accessToken, String refreshToken) {
+        if (accessToken != null && accessToken.getTokenId() != null) {
+            tokenDenylist.revoke(accessToken.getTokenId(), accessToken.getSubject(), accessToken.getExpiresAt());
+        }
+
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            try {
+                Claims claims = jwtTokenProvider.parseClaims(refreshToken);
+                if (claims.getId() != null) {
+                    tokenDenylist.revoke(claims.getId(), claims.getSubject(), claims.getExpiration().toInstant());
+                }
+            } catch (JwtException | IllegalArgumentException ignored) {
+                // Already invalid, nothing to revoke
+            }
+        }
+    }
+
     /**
      * Get user by ID
      */
@@ -135,6 +234,8 @@ public class AuthService {
         user.setUpdatedAt(LocalDateTime.now());
 
         User updatedUser = userRepository.save(user);
+        userPrincipalCache.invalidate(updatedUser.getEmail());
+        searchService.indexUser(updatedUser);
 
         return mapUserToResponse(updatedUser);
     }
@@ -146,13 +247,44 @@ public class AuthService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordHashingExecutor.matches(oldPassword, user.getPassword())) {
             throw new InvalidCredentialsException("Old password is incorrect");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingExecutor.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        userPrincipalCache.invalidate(user.getEmail());
+    }
+
+    /**
+     * Get current user from the principal cache; repeat calls need no database lookup
+     */
+    public UserResponse getCurrentUser(String email) {
+        UserPrincipal principal = userPrincipalCache.get(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+
+        return mapPrincipalToResponse(principal);
+    }
+
+    /**
+     * Map cached UserPrincipal to UserResponse DTO
+     */
+    private UserResponse mapPrincipalToResponse(UserPrincipal principal) {
+        UserResponse response = new UserResponse();
+        response.setId(principal.getId());
+        response.setEmail(principal.getEmail());
+        response.setFirstName(principal.getFirstName());
+        response.setLastName(principal.getLastName());
+        response.setPhoneNumber(principal.getPhoneNumber());
+        response.setAddress(principal.getAddress());
+        response.setEnabled(principal.isEnabled());
+        response.setCreatedAt(principal.getCreatedAt());
+        response.setRoles(principal.getRoles().stream()
+                .map(Enum::name)
+                .collect(java.util.stream.Collectors.toSet()));
+
+        return response;
     }
 
     /**
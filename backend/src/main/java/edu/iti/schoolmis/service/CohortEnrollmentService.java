@@ -0,0 +1,293 @@
+package edu.iti.schoolmis.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import edu.iti.schoolmis.dto.CohortEnrollmentStatus;
+import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.entity.Student;
+import edu.iti.schoolmis.entity.WaitlistEntry;
+import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.exception.ServiceBusyException;
+import edu.iti.schoolmis.repository.CourseRepository;
+import edu.iti.schoolmis.repository.StudentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Service enrolling a whole level into a set of courses in the background.
+ * Students are read through a cursor and each batch of student-course pairs is written with
+ * one unordered bulk insert; the unique (studentId, courseId) index skips pairs that exist.
+ * Each course's currentEnrollment is then increased once per batch by the number created,
+ * and the enrolled students are taken off the courses' waitlists.
+ * Cohort enrollment is an administrative action and does not enforce maxCapacity;
+ * courses it pushed past capacity are reported in the finished job.
+ * Job progress is held in memory on the node that runs it.
+ */
+@Service
+public class CohortEnrollmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(CohortEnrollmentService.class);
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseRosterService courseRosterService;
+
+    @Value("${cohort-enrollment.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cohort-enrollment.threads:2}")
+    private int threads;
+
+    @Value("${cohort-enrollment.queue-capacity:8}")
+    private int queueCapacity;
+
+    @Value("${cohort-enrollment.job-retention-ms:86400000}")
+    private long jobRetentionInMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "cohort-enrollment-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Start enrolling every active student of level into the courses; returns immediately
+     */
+    public CohortEnrollmentStatus start(String level, List<String> courseIds) {
+        List<String> courses = new ArrayList<>(new LinkedHashSet<>(courseIds));
+        Set<String> found = new HashSet<>();
+        courseRepository.findAllById(courses).forEach(course -> found.add(course.getId()));
+        for (String courseId : courses) {
+            if (!found.contains(courseId)) {
+                throw new ResourceNotFoundException("Course not found with id: " + courseId);
+            }
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), level, List.copyOf(courses));
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ServiceBusyException("Too many cohort enrollments in progress, please retry later", 30, e);
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * Current progress of a job
+     */
+    public CohortEnrollmentStatus getStatus(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Cohort enrollment job not found with id: " + jobId);
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * Forget finished jobs past their retention period
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(jobRetentionInMs));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(Job job) {
+        try (Stream<Student> students = studentRepository.streamIdsByCurrentLevel(job.level)) {
+            Iterator<Student> cursor = students.iterator();
+            List<String> batch = new ArrayList<>(batchSize);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next().getId());
+                if (batch.size() >= batchSize) {
+                    writeBatch(job, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(job, batch);
+            }
+            job.seatsOverCapacity = seatsOverCapacity(job.courseIds);
+            job.finish("COMPLETED", null);
+        } catch (Exception ex) {
+            log.warn("Cohort enrollment {} for level {} failed", job.id, job.level, ex);
+            job.finish("FAILED", ex.getMessage());
+        }
+    }
+
+    private void writeBatch(Job job, List<String> studentIds) {
+        List<Enrollment> enrollments = new ArrayList<>(studentIds.size() * job.courseIds.size());
+        for (String studentId : studentIds) {
+            for (String courseId : job.courseIds) {
+                enrollments.add(EnrollmentService.newEnrollment(studentId, courseId));
+            }
+        }
+
+        Set<Integer> rejected = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Enrollment.class)
+                    .insert(enrollments)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                rejected.add(error.getIndex());
+                if (error.getCode() == DUPLICATE_KEY_ERROR) {
+                    job.skipped.incrementAndGet();
+                } else {
+                    job.failed.incrementAndGet();
+                }
+            }
+        }
+
+        Map<String, List<String>> enrolledPerCourse = new HashMap<>();
+        for (int i = 0; i < enrollments.size(); i++) {
+            if (!rejected.contains(i)) {
+                Enrollment enrollment = enrollments.get(i);
+                enrolledPerCourse.computeIfAbsent(enrollment.getCourseId(), c -> new ArrayList<>())
+                        .add(enrollment.getStudentId());
+            }
+        }
+
+        if (!enrolledPerCourse.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations counters = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Course.class);
+            BulkOperations waitlist = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WaitlistEntry.class);
+            enrolledPerCourse.forEach((courseId, enrolled) -> {
+                counters.updateOne(Query.query(Criteria.where("id").is(courseId)),
+                        new Update().inc("currentEnrollment", enrolled.size()).set("updatedAt", now));
+                waitlist.remove(Query.query(Criteria.where("courseId").is(courseId).and("studentId").in(enrolled)));
+            });
+            counters.execute();
+            job.waitlistRemoved.addAndGet(waitlist.execute().getDeletedCount());
+            enrolledPerCourse.keySet().forEach(courseRosterService::invalidate);
+        }
+
+        job.created.addAndGet(enrollments.size() - rejected.size());
+        job.studentsProcessed.addAndGet(studentIds.size());
+    }
+
+    /**
+     * Seats taken beyond maxCapacity in each capped course that is over it
+     */
+    private Map<String, Integer> seatsOverCapacity(List<String> courseIds) {
+        Query query = Query.query(Criteria.where("id").in(courseIds));
+        query.fields().include("currentEnrollment", "maxCapacity");
+        Map<String, Integer> overflow = new LinkedHashMap<>();
+        for (Course course : mongoTemplate.find(query, Course.class)) {
+            if (course.getMaxCapacity() > 0 && course.getCurrentEnrollment() > course.getMaxCapacity()) {
+                overflow.put(course.getId(), course.getCurrentEnrollment() - course.getMaxCapacity());
+            }
+        }
+        return overflow;
+    }
+
+    /**
+     * Progress of one cohort enrollment, updated by its worker and read by status requests
+     */
+    private static final class Job {
+
+        final String id;
+
+        final String level;
+
+        final List<String> courseIds;
+
+        final LocalDateTime startedAt = LocalDateTime.now();
+
+        final AtomicLong studentsProcessed = new AtomicLong();
+
+        final AtomicLong created = new AtomicLong();
+
+        final AtomicLong skipped = new AtomicLong();
+
+        final AtomicLong failed = new AtomicLong();
+
+        final AtomicLong waitlistRemoved = new AtomicLong();
+
+        volatile Map<String, Integer> seatsOverCapacity = Map.of();
+
+        volatile String status = "RUNNING";
+
+        volatile String error;
+
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, String level, List<String> courseIds) {
+            this.id = id;
+            this.level = level;
+            this.courseIds = courseIds;
+        }
+
+        void finish(String finalStatus, String failure) {
+            error = failure;
+            status = finalStatus;
+            finishedAt = LocalDateTime.now();
+        }
+
+        CohortEnrollmentStatus toStatus() {
+            return new CohortEnrollmentStatus(id, level, courseIds, status, studentsProcessed.get(),
+                    created.get(), skipped.get(), failed.get(), waitlistRemoved.get(), seatsOverCapacity,
+                    error, startedAt, finishedAt);
+        }
+    }
+}
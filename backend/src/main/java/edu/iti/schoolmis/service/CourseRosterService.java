@@ -0,0 +1,170 @@
+package edu.iti.schoolmis.service;
+
+import edu.iti.schoolmis.dto.CourseRoster;
+import edu.iti.schoolmis.dto.RosterEntry;
+import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.entity.Student;
+import edu.iti.schoolmis.entity.User;
+import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.CourseRepository;
+import edu.iti.schoolmis.repository.EnrollmentRepository;
+import edu.iti.schoolmis.repository.StudentRepository;
+import edu.iti.schoolmis.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service building course rosters.
+ * A roster is resolved with one query per collection (enrollments by course, then students and
+ * users by $in) and cached per course; writers that change a course's enrollments must call
+ * {@link #invalidate(String)}. Profile edits are picked up when the entry expires.
+ * The cache and its invalidation are local to this node: a change made through another node
+ * is seen here once the entry expires, so rosters can be up to course-roster.cache.ttl-ms stale.
+ */
+@Service
+public class CourseRosterService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final Comparator<RosterEntry> BY_NAME = Comparator
+            .comparing(RosterEntry::getLastName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(RosterEntry::getFirstName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(RosterEntry::getEnrollmentId);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${course-roster.cache.ttl-ms:300000}")
+    private long ttlInMs;
+
+    @Value("${course-roster.cache.max-size:1000}")
+    private int maxSize;
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidate; a roster loaded across a bump is returned but not cached
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Get one page of the course roster, ordered by student name; dropped enrollments are left out
+     */
+    public CourseRoster getRoster(String courseId, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(page, 0);
+
+        List<RosterEntry> roster = cachedRoster(courseId);
+        int from = (int) Math.min((long) pageNumber * pageSize, roster.size());
+        int to = Math.min(from + pageSize, roster.size());
+        return new CourseRoster(courseId, roster.size(), pageNumber, pageSize, roster.subList(from, to));
+    }
+
+    /**
+     * Drop the cached roster of the given course
+     */
+    public void invalidate(String courseId) {
+        if (courseId != null) {
+            versions.merge(courseId, 1L, Long::sum);
+            cache.remove(courseId);
+        }
+    }
+
+    /**
+     * Return the cached roster, loading it on a miss.
+     * The queries run outside any map lock. The result is cached only if the course was not
+     * invalidated since loading began, so a roster read before an enrollment change is never kept after it.
+     */
+    private List<RosterEntry> cachedRoster(String courseId) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(courseId);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.roster;
+        }
+
+        long version = versions.getOrDefault(courseId, 0L);
+        List<RosterEntry> roster = load(courseId);
+
+        if (cache.size() >= maxSize) {
+            evict(now);
+        }
+        cache.compute(courseId, (id, current) -> versions.getOrDefault(id, 0L) == version
+                ? new Entry(roster, now + ttlInMs)
+                : current);
+        return roster;
+    }
+
+    private List<RosterEntry> load(String courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+
+        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId).stream()
+                .filter(enrollment -> !"DROPPED".equals(enrollment.getStatus()))
+                .collect(Collectors.toList());
+
+        Map<String, Student> students = studentRepository.findAllById(enrollments.stream()
+                        .map(Enrollment::getStudentId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+
+        Map<String, User> users = userRepository.findAllById(students.values().stream()
+                        .map(Student::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return enrollments.stream()
+                .map(enrollment -> toEntry(enrollment, students.get(enrollment.getStudentId()), users))
+                .sorted(BY_NAME)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static RosterEntry toEntry(Enrollment enrollment, Student student, Map<String, User> users) {
+        User user = student != null && student.getUserId() != null ? users.get(student.getUserId()) : null;
+        return new RosterEntry(
+                enrollment.getId(),
+                enrollment.getStudentId(),
+                student != null ? student.getStudentId() : null,
+                user != null ? user.getFirstName() : null,
+                user != null ? user.getLastName() : null,
+                user != null ? user.getEmail() : null,
+                student != null ? student.getCurrentLevel() : null,
+                enrollment.getStatus(),
+                enrollment.getGrade(),
+                enrollment.getGradePoint(),
+                enrollment.getFinalScore(),
+                enrollment.getEnrollmentDate());
+    }
+
+    private void evict(long now) {
+        cache.values().removeIf(e -> e.expiresAt <= now);
+
+        Iterator<String> keys = cache.keySet().iterator();
+        while (cache.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry(List<RosterEntry> roster, long expiresAt) {
+    }
+}
@@ -1,10 +1,18 @@
 package edu.iti.schoolmis.service;
 
 import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.exception.CourseFullException;
 import edu.iti.schoolmis.exception.DuplicateResourceException;
 import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
 import edu.iti.schoolmis.repository.CourseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,20 +26,37 @@ public class CourseService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private CourseRosterService courseRosterService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     /**
      * Create a new course
      */
     public Course createCourse(Course course) {
-        if (courseRepository.findByCourseCode(course.getCourseCode()).isPresent()) {
-            throw new DuplicateResourceException("Course code already exists");
-        }
-
+        course.setId(null);
         course.setCreatedAt(LocalDateTime.now());
         course.setUpdatedAt(LocalDateTime.now());
         course.setActive(true);
         course.setCurrentEnrollment(0);
 
-        return courseRepository.save(course);
+        // Unique courseCode index rejects duplicates in the same round trip as the insert
+        Course savedCourse;
+        try {
+            savedCourse = courseRepository.insert(course);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateResourceException("Course code already exists", e);
+        }
+        searchService.indexCourse(savedCourse);
+        return savedCourse;
     }
 
     /**
@@ -79,46 +104,73 @@ public class CourseService {
     }
 
     /**
-     * Update course
+     * Update course.
+     * Only the editable fields are set, so seat counts and the waitlist sequence changed
+     * by concurrent enrollments are left alone.
      */
     public Course updateCourse(String id, Course course) {
-        Course existingCourse = courseRepository.findById(id)
+        Update update = new Update()
+                .set("courseName", course.getCourseName())
+                .set("description", course.getDescription())
+                .set("level", course.getLevel())
+                .set("creditHours", course.getCreditHours())
+                .set("teacherId", course.getTeacherId())
+                .set("maxCapacity", course.getMaxCapacity())
+                .set("semester", course.getSemester())
+                .set("updatedAt", LocalDateTime.now());
+
+        Course updatedCourse = atomicUpdateRepository.updateByIdAndGet(Course.class, id, update)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
-
-        existingCourse.setCourseName(course.getCourseName());
-        existingCourse.setDescription(course.getDescription());
-        existingCourse.setLevel(course.getLevel());
-        existingCourse.setCreditHours(course.getCreditHours());
-        existingCourse.setTeacherId(course.getTeacherId());
-        existingCourse.setMaxCapacity(course.getMaxCapacity());
-        existingCourse.setSemester(course.getSemester());
-        existingCourse.setUpdatedAt(LocalDateTime.now());
-
-        return courseRepository.save(existingCourse);
+        searchService.indexCourse(updatedCourse);
+        return updatedCourse;
     }
 
     /**
-     * Update enrollment count
+     * Take one seat in the course, or throw CourseFullException if none are left.
+     * The capacity check and the increment are one conditional update, so concurrent
+     * enrollments can never push currentEnrollment past maxCapacity.
+     * Courses without a positive maxCapacity are not capped.
      */
-    public void updateEnrollmentCount(String courseId, int count) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
+    public void reserveSeat(String courseId) {
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("id").is(courseId),
+                new Criteria().orOperator(
+                        Criteria.where("maxCapacity").lte(0),
+                        Criteria.expr(ComparisonOperators.valueOf("currentEnrollment").lessThan("maxCapacity")))));
+        Update update = new Update()
+                .inc("currentEnrollment", 1)
+                .set("updatedAt", LocalDateTime.now());
+
+        if (mongoTemplate.updateFirst(query, update, Course.class).getMatchedCount() == 0) {
+            if (!courseRepository.existsById(courseId)) {
+                throw new ResourceNotFoundException("Course not found with id: " + courseId);
+            }
+            throw new CourseFullException("Course has no seats left: " + courseId);
+        }
+    }
 
-        course.setCurrentEnrollment(count);
-        course.setUpdatedAt(LocalDateTime.now());
-        courseRepository.save(course);
+    /**
+     * Give back a seat taken by reserveSeat
+     */
+    public void releaseSeat(String courseId) {
+        Query query = Query.query(Criteria.where("id").is(courseId).and("currentEnrollment").gt(0));
+        Update update = new Update()
+                .inc("currentEnrollment", -1)
+                .set("updatedAt", LocalDateTime.now());
+        mongoTemplate.updateFirst(query, update, Course.class);
     }
 
     /**
      * Deactivate course
      */
     public void deactivateCourse(String id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+        Update update = new Update()
+                .set("active", false)
+                .set("updatedAt", LocalDateTime.now());
 
-        course.setActive(false);
-        course.setUpdatedAt(LocalDateTime.now());
-        courseRepository.save(course);
+        if (!atomicUpdateRepository.updateById(Course.class, id, update)) {
+            throw new ResourceNotFoundException("Course not found with id: " + id);
+        }
     }
 
     /**
@@ -129,6 +181,8 @@ public class CourseService {
             throw new ResourceNotFoundException("Course not found with id: " + id);
         }
         courseRepository.deleteById(id);
+        searchService.remove(SearchService.TYPE_COURSE, id);
+        courseRosterService.invalidate(id);
     }
 }
 
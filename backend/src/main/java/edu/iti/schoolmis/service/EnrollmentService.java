@@ -1,13 +1,26 @@
 package edu.iti.schoolmis.service;
 
+import edu.iti.schoolmis.dto.BulkTransitionResult;
+import edu.iti.schoolmis.dto.TransitionResult;
 import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.entity.Enrollment.Transition;
+import edu.iti.schoolmis.entity.Notification;
+import edu.iti.schoolmis.entity.WaitlistEntry;
+import edu.iti.schoolmis.exception.CourseFullException;
 import edu.iti.schoolmis.exception.DuplicateResourceException;
 import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.exception.ServiceBusyException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
 import edu.iti.schoolmis.repository.EnrollmentRepository;
+import edu.iti.schoolmis.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service for enrollment management
@@ -15,27 +28,83 @@ import java.util.List;
 @Service
 public class EnrollmentService {
 
+    private static final String DROPPED = "DROPPED";
+
+    private static final int GRADE_UPDATE_ATTEMPTS = 3;
+
     @Autowired
     private EnrollmentRepository enrollmentRepository;
 
+    @Autowired
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Autowired
+    private GpaService gpaService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRosterService courseRosterService;
+
     /**
-     * Create a new enrollment
+     * Create a new enrollment, taking a seat in the course.
+     * A dropped enrollment in the course is reactivated into the seat instead.
+     * Idempotent: if the student already has a live enrollment in the course, that one is returned.
      */
     public Enrollment enrollStudent(String studentId, String courseId) {
-        // Check if student is already enrolled
-        if (enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId).isPresent()) {
-            throw new DuplicateResourceException("Student is already enrolled in this course");
+        try {
+            courseService.reserveSeat(courseId);
+        } catch (CourseFullException e) {
+            // A retry after the last seat went to this very request still gets its enrollment
+            return enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
+                    .filter(existing -> !DROPPED.equals(existing.getStatus()))
+                    .orElseThrow(() -> e);
         }
 
-        Enrollment enrollment = new Enrollment();
-        enrollment.setStudentId(studentId);
-        enrollment.setCourseId(courseId);
-        enrollment.setEnrollmentDate(LocalDateTime.now());
-        enrollment.setStatus("ACTIVE");
-        enrollment.setCreatedAt(LocalDateTime.now());
-        enrollment.setUpdatedAt(LocalDateTime.now());
+        // The unique (studentId, courseId) index decides between concurrent or retried requests
+        try {
+            Enrollment enrollment = enrollmentRepository.insert(newEnrollment(studentId, courseId));
+            courseRosterService.invalidate(courseId);
+            return enrollment;
+        } catch (DuplicateKeyException e) {
+            Optional<Enrollment> reenrolled = reenroll(studentId, courseId);
+            if (reenrolled.isPresent()) {
+                return reenrolled.get();
+            }
+            courseService.releaseSeat(courseId);
+            return enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
+                    .orElseThrow(() -> new DuplicateResourceException("Student is already enrolled in this course", e));
+        } catch (RuntimeException e) {
+            // Seat was taken for an enrollment that does not exist; give it back
+            courseService.releaseSeat(courseId);
+            throw e;
+        }
+    }
 
-        return enrollmentRepository.save(enrollment);
+    /**
+     * Queue student for a full course; they are enrolled automatically when a seat frees up
+     */
+    public WaitlistEntry joinWaitlist(String studentId, String courseId) {
+        if (enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
+                .filter(existing -> !DROPPED.equals(existing.getStatus()))
+                .isPresent()) {
+            throw new DuplicateResourceException("Student is already enrolled in this course");
+        }
+
+        WaitlistEntry entry = waitlistService.join(studentId, courseId);
+        // A seat may have freed up before the entry was queued; nobody would promote it then
+        fillFreeSeats(courseId);
+        return entry;
     }
 
     /**
@@ -68,53 +137,244 @@ public class EnrollmentService {
     }
 
     /**
-     * Update enrollment grade
+     * Update enrollment grade and apply the change to the student's GPA.
+     * The write only succeeds if status, gradePoint and gradedCredits are still as read, so the
+     * GPA delta is always taken against the values it replaces. On a conflict the enrollment is
+     * read again; after GRADE_UPDATE_ATTEMPTS conflicts the caller is asked to retry.
      */
     public Enrollment updateEnrollmentGrade(String enrollmentId, String grade, double gradePoint, double finalScore) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + enrollmentId));
+        for (int attempt = 0; attempt < GRADE_UPDATE_ATTEMPTS; attempt++) {
+            Enrollment enrollment = getEnrollmentById(enrollmentId);
+            int credits = DROPPED.equals(enrollment.getStatus()) ? 0 : gpaService.creditHoursFor(enrollment.getCourseId());
+            LocalDateTime now = LocalDateTime.now();
+            Update update = new Update()
+                    .set("grade", grade)
+                    .set("gradePoint", gradePoint)
+                    .set("finalScore", finalScore)
+                    .set("gradedCredits", credits)
+                    .set("updatedAt", now);
 
-        enrollment.setGrade(grade);
-        enrollment.setGradePoint(gradePoint);
-        enrollment.setFinalScore(finalScore);
-        enrollment.setUpdatedAt(LocalDateTime.now());
+            if (atomicUpdateRepository.updateByIdIf(Enrollment.class, enrollmentId,
+                    GpaService.contributionUnchanged(enrollment), update)) {
+                gpaService.applyGradeChange(enrollment, gradePoint, credits);
+                courseRosterService.invalidate(enrollment.getCourseId());
 
-        return enrollmentRepository.save(enrollment);
+                enrollment.setGrade(grade);
+                enrollment.setGradePoint(gradePoint);
+                enrollment.setFinalScore(finalScore);
+                enrollment.setGradedCredits(credits);
+                enrollment.setUpdatedAt(now);
+                return enrollment;
+            }
+        }
+        throw new ServiceBusyException("Enrollment is being updated concurrently: " + enrollmentId, 1);
     }
 
     /**
-     * Drop enrollment
+     * Activate a pending enrollment, taking a seat in the course
      */
-    public void dropEnrollment(String enrollmentId) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + enrollmentId));
+    public TransitionResult activateEnrollment(String enrollmentId) {
+        Enrollment enrollment = getEnrollmentById(enrollmentId);
+        if (!Transition.ACTIVATE.getSources().contains(enrollment.getStatus())) {
+            return rejected(enrollment, Transition.ACTIVATE);
+        }
 
-        enrollment.setStatus("DROPPED");
-        enrollment.setUpdatedAt(LocalDateTime.now());
-        enrollmentRepository.save(enrollment);
+        courseService.reserveSeat(enrollment.getCourseId());
+        Optional<Enrollment> previous = transition(enrollmentId, Transition.ACTIVATE, new Update());
+        if (previous.isEmpty()) {
+            // Another request moved the enrollment on after it was read; the seat is not needed
+            courseService.releaseSeat(enrollment.getCourseId());
+            return rejected(enrollmentId, Transition.ACTIVATE);
+        }
+        return applied(previous.get(), Transition.ACTIVATE);
     }
 
     /**
-     * Complete enrollment
+     * Drop a pending or active enrollment, freeing its seat and removing its grade from the student's GPA
      */
-    public void completeEnrollment(String enrollmentId) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + enrollmentId));
+    public TransitionResult dropEnrollment(String enrollmentId) {
+        Optional<Enrollment> previous = transition(enrollmentId, Transition.DROP, new Update().set("gradedCredits", 0));
+        if (previous.isEmpty()) {
+            return rejected(enrollmentId, Transition.DROP);
+        }
 
-        enrollment.setStatus("COMPLETED");
-        enrollment.setCompletedDate(LocalDateTime.now());
-        enrollment.setUpdatedAt(LocalDateTime.now());
-        enrollmentRepository.save(enrollment);
+        if ("ACTIVE".equals(previous.get().getStatus())) {
+            handOverSeat(previous.get().getCourseId());
+        }
+        gpaService.retract(previous.get());
+        return applied(previous.get(), Transition.DROP);
     }
 
     /**
-     * Delete enrollment
+     * Complete an active enrollment
+     */
+    public TransitionResult completeEnrollment(String enrollmentId) {
+        return transition(enrollmentId, Transition.COMPLETE, new Update().set("completedDate", LocalDateTime.now()))
+                .map(previous -> applied(previous, Transition.COMPLETE))
+                .orElseGet(() -> rejected(enrollmentId, Transition.COMPLETE));
+    }
+
+    /**
+     * Complete every active enrollment in the course with a single update-many, e.g. at term end
+     */
+    public BulkTransitionResult completeCourseEnrollments(String courseId) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", Transition.COMPLETE.getTarget())
+                .set("completedDate", now)
+                .set("updatedAt", now);
+
+        long updated = atomicUpdateRepository.updateAll(Enrollment.class,
+                Criteria.where("courseId").is(courseId).and("status").in(Transition.COMPLETE.getSources()), update);
+        courseRosterService.invalidate(courseId);
+        return new BulkTransitionResult(courseId, Transition.COMPLETE.name(), updated);
+    }
+
+    /**
+     * Delete enrollment.
+     * The removal returns the deleted document, so only the caller that actually removed it
+     * frees the seat and retracts the grade, even when deletes or a drop race.
      */
     public void deleteEnrollment(String id) {
-        if (!enrollmentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Enrollment not found with id: " + id);
+        Enrollment enrollment = atomicUpdateRepository.removeByIdAndGet(Enrollment.class, id)
+                .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + id));
+        courseRosterService.invalidate(enrollment.getCourseId());
+        if ("ACTIVE".equals(enrollment.getStatus())) {
+            handOverSeat(enrollment.getCourseId());
+        }
+        gpaService.retract(enrollment);
+    }
+
+    /**
+     * Give a held seat to the first waiting student, or release it if nobody is waiting.
+     * The seat moves without touching currentEnrollment, so a direct enrollment cannot take it first.
+     * Returns true if a student was enrolled.
+     */
+    private boolean handOverSeat(String courseId) {
+        WaitlistEntry next;
+        while ((next = waitlistService.pollNext(courseId)) != null) {
+            if (promote(next)) {
+                return true;
+            }
+        }
+        courseService.releaseSeat(courseId);
+        return false;
+    }
+
+    /**
+     * Promote waiting students while the course has free seats, e.g. after its capacity was raised.
+     * A seat is reserved before anyone is taken off the waitlist, so a full course leaves the line untouched.
+     * Returns the number of students enrolled.
+     */
+    public int fillFreeSeats(String courseId) {
+        int promoted = 0;
+        while (true) {
+            try {
+                courseService.reserveSeat(courseId);
+            } catch (CourseFullException e) {
+                return promoted;
+            }
+            if (!handOverSeat(courseId)) {
+                return promoted;
+            }
+            promoted++;
         }
-        enrollmentRepository.deleteById(id);
+    }
+
+    /**
+     * Enroll a polled waitlist entry into a seat already held for it and notify the student.
+     * A student who dropped the course earlier gets that enrollment back.
+     * Returns false if the student enrolled some other way meanwhile. If the enrollment cannot be
+     * written, the entry goes back in line and the seat is released before the error propagates.
+     */
+    private boolean promote(WaitlistEntry entry) {
+        String enrollmentId;
+        try {
+            enrollmentId = enrollmentRepository.insert(newEnrollment(entry.getStudentId(), entry.getCourseId())).getId();
+        } catch (DuplicateKeyException e) {
+            Optional<Enrollment> reenrolled = reenroll(entry.getStudentId(), entry.getCourseId());
+            if (reenrolled.isEmpty()) {
+                return false;
+            }
+            enrollmentId = reenrolled.get().getId();
+        } catch (RuntimeException e) {
+            waitlistService.requeue(entry);
+            courseService.releaseSeat(entry.getCourseId());
+            throw e;
+        }
+        courseRosterService.invalidate(entry.getCourseId());
+
+        String promotedId = enrollmentId;
+        studentRepository.findById(entry.getStudentId()).ifPresent(student -> {
+            Notification notification = new Notification();
+            notification.setUserId(student.getUserId());
+            notification.setTitle("Enrolled from waitlist");
+            notification.setMessage("A seat opened up and you have been enrolled in the course.");
+            notification.setNotificationType("SUCCESS");
+            notification.setRelatedEntityId(promotedId);
+            notification.setRelatedEntityType("ENROLLMENT");
+            notificationService.sendNotification(notification);
+        });
+        return true;
+    }
+
+    /**
+     * Reactivate the student's dropped enrollment in the course as a fresh, ungraded enrollment,
+     * for a seat the caller already holds. The status check and the write are one conditional update.
+     * Returns the reactivated enrollment, or empty if the student has no dropped enrollment there.
+     */
+    private Optional<Enrollment> reenroll(String studentId, String courseId) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", Transition.REENROLL.getTarget())
+                .set("enrollmentDate", now)
+                .unset("grade")
+                .set("gradePoint", 0.0)
+                .set("finalScore", 0.0)
+                .set("gradedCredits", 0)
+                .unset("completedDate")
+                .set("updatedAt", now);
+
+        Optional<Enrollment> reenrolled = atomicUpdateRepository.updateFirstAndGet(Enrollment.class,
+                Criteria.where("studentId").is(studentId).and("courseId").is(courseId)
+                        .and("status").in(Transition.REENROLL.getSources()), update);
+        reenrolled.ifPresent(enrollment -> courseRosterService.invalidate(courseId));
+        return reenrolled;
+    }
+
+    /**
+     * Move the enrollment to the transition's target status in one conditional write.
+     * Returns the enrollment as it was before, or empty if its status did not allow the transition.
+     */
+    private Optional<Enrollment> transition(String enrollmentId, Transition transition, Update update) {
+        update.set("status", transition.getTarget()).set("updatedAt", LocalDateTime.now());
+        Optional<Enrollment> previous = atomicUpdateRepository.updateByIdIfAndGetPrevious(Enrollment.class, enrollmentId,
+                Criteria.where("status").in(transition.getSources()), update);
+        previous.ifPresent(enrollment -> courseRosterService.invalidate(enrollment.getCourseId()));
+        return previous;
+    }
+
+    private static TransitionResult applied(Enrollment previous, Transition transition) {
+        return new TransitionResult(previous.getId(), transition.name(), true, previous.getStatus(), transition.getTarget());
+    }
+
+    private TransitionResult rejected(String enrollmentId, Transition transition) {
+        return rejected(getEnrollmentById(enrollmentId), transition);
+    }
+
+    private static TransitionResult rejected(Enrollment current, Transition transition) {
+        return new TransitionResult(current.getId(), transition.name(), false, current.getStatus(), current.getStatus());
+    }
+
+    static Enrollment newEnrollment(String studentId, String courseId) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudentId(studentId);
+        enrollment.setCourseId(courseId);
+        enrollment.setEnrollmentDate(LocalDateTime.now());
+        enrollment.setStatus("ACTIVE");
+        enrollment.setCreatedAt(LocalDateTime.now());
+        enrollment.setUpdatedAt(LocalDateTime.now());
+        return enrollment;
     }
 }
 
@@ -0,0 +1,303 @@
+package edu.iti.schoolmis.service;
+
+import edu.iti.schoolmis.dto.GpaRecomputeReport;
+import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.entity.Student;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service maintaining credit-weighted GPAs.
+ * Each student keeps a running gradePointSum and gradedCredits; a grade change applies
+ * only its delta, and gpa is derived from the new totals in the same atomic update.
+ * Enrollments remember the credits they contribute, so later changes can be reversed exactly.
+ */
+@Service
+public class GpaService {
+
+    private static final String DROPPED = "DROPPED";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${gpa.recompute.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Credit hours an enrollment in the given course counts towards GPA
+     */
+    public int creditHoursFor(String courseId) {
+        Query query = Query.query(Criteria.where("id").is(courseId));
+        query.fields().include("creditHours");
+        Course course = mongoTemplate.findOne(query, Course.class);
+        return course != null ? course.getCreditHours() : 0;
+    }
+
+    /**
+     * Replace the contribution of previous with gradePoint over creditHours
+     */
+    public void applyGradeChange(Enrollment previous, double gradePoint, int creditHours) {
+        double pointsDelta = gradePoint * creditHours - contribution(previous);
+        int creditsDelta = creditHours - previous.getGradedCredits();
+        applyDelta(previous.getStudentId(), pointsDelta, creditsDelta);
+    }
+
+    /**
+     * Apply many grade changes at once: deltas are summed per student and written in one unordered bulk update
+     */
+    public void applyGradeChanges(List<GradeChange> changes) {
+        Map<String, GpaTotals> deltas = new HashMap<>();
+        for (GradeChange change : changes) {
+            Enrollment previous = change.previous();
+            if (previous.getStudentId() == null) {
+                continue;
+            }
+            GpaTotals delta = new GpaTotals(change.gradePoint() * change.creditHours() - contribution(previous),
+                    change.creditHours() - previous.getGradedCredits());
+            deltas.merge(previous.getStudentId(), delta, GpaTotals::plus);
+        }
+        deltas.values().removeIf(delta -> delta.points() == 0 && delta.credits() == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class);
+        deltas.forEach((studentId, delta) -> bulk.updateOne(Query.query(Criteria.where("id").is(studentId)),
+                deltaUpdate(delta.points(), delta.credits())));
+        bulk.execute();
+    }
+
+    /**
+     * Remove the contribution of an enrollment that was dropped or deleted
+     */
+    public void retract(Enrollment previous) {
+        applyDelta(previous.getStudentId(), -contribution(previous), -previous.getGradedCredits());
+    }
+
+    /**
+     * Rebuild every student's GPA from their graded enrollments
+     */
+    public GpaRecomputeReport recomputeAll() {
+        return recompute(null);
+    }
+
+    /**
+     * Rebuild GPAs for the given students, or for all students when studentIds is null.
+     * Graded enrollments are streamed through a cursor and folded into per-student totals,
+     * which are written back in unordered bulk batches, one batch at a time.
+     * Grade changes made while this runs may be overwritten, so run it after imports settle.
+     */
+    public GpaRecomputeReport recompute(Collection<String> studentIds) {
+        long started = System.nanoTime();
+        Map<String, Integer> credits = creditHoursByCourse();
+
+        Query query = new Query(Criteria.where("grade").ne(null).and("status").ne(DROPPED));
+        if (studentIds != null) {
+            query.addCriteria(Criteria.where("studentId").in(studentIds));
+        }
+        query.fields().include("studentId", "courseId", "gradePoint");
+        query.cursorBatchSize(batchSize);
+
+        Map<String, GpaTotals> totals = new HashMap<>();
+        int graded = 0;
+        try (Stream<Enrollment> enrollments = mongoTemplate.stream(query, Enrollment.class)) {
+            for (Enrollment e : (Iterable<Enrollment>) enrollments::iterator) {
+                graded++;
+                if (e.getStudentId() != null) {
+                    totals.merge(e.getStudentId(),
+                            GpaTotals.of(e.getGradePoint(), credits.getOrDefault(e.getCourseId(), 0)),
+                            GpaTotals::plus);
+                }
+            }
+        }
+
+        snapshotEnrollmentCredits(credits, studentIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = null;
+        int pending = 0;
+        for (Map.Entry<String, GpaTotals> entry : totals.entrySet()) {
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class);
+            }
+            GpaTotals t = entry.getValue();
+            bulk.updateOne(Query.query(Criteria.where("id").is(entry.getKey())), new Update()
+                    .set("gradePointSum", t.points())
+                    .set("gradedCredits", t.credits())
+                    .set("gpa", t.gpa())
+                    .set("updatedAt", now));
+            if (++pending == batchSize) {
+                bulk.execute();
+                bulk = null;
+                pending = 0;
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+
+        int reset = resetUngraded(totals.keySet(), studentIds, now);
+
+        return new GpaRecomputeReport(graded, totals.size(), reset,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Bring each enrollment's contributed credits in line with its course
+     */
+    private void snapshotEnrollmentCredits(Map<String, Integer> credits, Collection<String> studentIds) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Enrollment.class);
+        for (Map.Entry<String, Integer> course : credits.entrySet()) {
+            Query query = new Query(Criteria.where("courseId").is(course.getKey())
+                    .and("grade").ne(null)
+                    .and("status").ne(DROPPED)
+                    .and("gradedCredits").ne(course.getValue()));
+            if (studentIds != null) {
+                query.addCriteria(Criteria.where("studentId").in(studentIds));
+            }
+            bulk.updateMulti(query, Update.update("gradedCredits", course.getValue()));
+        }
+
+        Query uncounted = new Query(new Criteria().orOperator(
+                Criteria.where("grade").is(null),
+                Criteria.where("status").is(DROPPED),
+                Criteria.where("courseId").nin(credits.keySet()))
+                .and("gradedCredits").ne(0));
+        if (studentIds != null) {
+            uncounted.addCriteria(Criteria.where("studentId").in(studentIds));
+        }
+        bulk.updateMulti(uncounted, Update.update("gradedCredits", 0));
+        bulk.execute();
+    }
+
+    /**
+     * Clear running totals of students in scope that no longer have graded enrollments
+     */
+    private int resetUngraded(Set<String> gradedIds, Collection<String> studentIds, LocalDateTime now) {
+        Criteria criteria;
+        if (studentIds != null) {
+            Set<String> ungraded = new HashSet<>(studentIds);
+            ungraded.removeAll(gradedIds);
+            if (ungraded.isEmpty()) {
+                return 0;
+            }
+            criteria = Criteria.where("id").in(ungraded);
+        } else {
+            criteria = Criteria.where("gradedCredits").gt(0).and("id").nin(gradedIds);
+        }
+
+        Update update = new Update()
+                .set("gradePointSum", 0.0)
+                .set("gradedCredits", 0)
+                .set("gpa", 0.0)
+                .set("updatedAt", now);
+        return (int) mongoTemplate.updateMulti(new Query(criteria), update, Student.class).getModifiedCount();
+    }
+
+    private Map<String, Integer> creditHoursByCourse() {
+        Query query = new Query();
+        query.fields().include("creditHours");
+        return mongoTemplate.find(query, Course.class).stream()
+                .collect(Collectors.toMap(Course::getId, Course::getCreditHours));
+    }
+
+    /**
+     * Add the deltas to the student's totals and derive gpa from the result, atomically
+     */
+    private void applyDelta(String studentId, double pointsDelta, int creditsDelta) {
+        if (studentId == null || (pointsDelta == 0 && creditsDelta == 0)) {
+            return;
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(studentId)),
+                deltaUpdate(pointsDelta, creditsDelta), Student.class);
+    }
+
+    /**
+     * Pipeline adding the deltas to the running totals, then setting gpa from the new totals
+     */
+    private static AggregationUpdate deltaUpdate(double pointsDelta, int creditsDelta) {
+        return AggregationUpdate.from(List.of(
+                stage(new Document("gradePointSum", increment("$gradePointSum", pointsDelta))
+                        .append("gradedCredits", increment("$gradedCredits", creditsDelta))
+                        .append("updatedAt", "$$NOW")),
+                stage(new Document("gpa", new Document("$cond", List.of(
+                        new Document("$gt", List.of("$gradedCredits", 0)),
+                        new Document("$round", List.of(
+                                new Document("$divide", List.of("$gradePointSum", "$gradedCredits")), 2)),
+                        0.0))))));
+    }
+
+    private static Document increment(String field, Number delta) {
+        return new Document("$add", List.of(new Document("$ifNull", List.of(field, 0)), delta));
+    }
+
+    private static AggregationOperation stage(Document fields) {
+        Document stage = new Document("$set", fields);
+        return context -> stage;
+    }
+
+    /**
+     * Criteria matching an enrollment only while its status and GPA contribution are still as read,
+     * so a write conditioned on it replaces exactly the contribution its delta was computed from
+     */
+    static Criteria contributionUnchanged(Enrollment previous) {
+        return new Criteria().andOperator(
+                Criteria.where("status").is(previous.getStatus()),
+                sameAs("gradePoint", previous.getGradePoint()),
+                sameAs("gradedCredits", previous.getGradedCredits()));
+    }
+
+    /**
+     * Match field equal to value; a zero also matches documents written before the field existed
+     */
+    private static Criteria sameAs(String field, Number value) {
+        return value.doubleValue() == 0 ? Criteria.where(field).in(value, null) : Criteria.where(field).is(value);
+    }
+
+    private static double contribution(Enrollment enrollment) {
+        return enrollment.getGradePoint() * enrollment.getGradedCredits();
+    }
+
+    /**
+     * A grade written over the previous state of an enrollment, worth creditHours towards GPA
+     */
+    public record GradeChange(Enrollment previous, double gradePoint, int creditHours) {
+    }
+
+    /**
+     * Running credit-weighted totals for one student
+     */
+    private record GpaTotals(double points, int credits) {
+
+        static GpaTotals of(double gradePoint, int creditHours) {
+            return new GpaTotals(gradePoint * creditHours, creditHours);
+        }
+
+        GpaTotals plus(GpaTotals other) {
+            return new GpaTotals(points + other.points, credits + other.credits);
+        }
+
+        double gpa() {
+            return credits > 0 ? Math.round(points / credits * 100) / 100.0 : 0.0;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package edu.iti.schoolmis.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import edu.iti.schoolmis.dto.BulkImportReport;
+import edu.iti.schoolmis.dto.BulkRowResult;
+import edu.iti.schoolmis.dto.GradeEntry;
+import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.service.GpaService.GradeChange;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service applying a whole course grade sheet at once.
+ * Enrollments and their previous grades are resolved with one indexed query, grades are written
+ * with one unordered bulk update and each student's GPA delta is applied in one more bulk update.
+ * Each grade is written only if the enrollment still holds the grade that was read. If any of them
+ * changed meanwhile, the affected rows are reported as conflicts and the sheet's students have
+ * their GPAs recomputed instead of trusting the deltas.
+ */
+@Service
+public class GradebookService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private GpaService gpaService;
+
+    @Autowired
+    private CourseRosterService courseRosterService;
+
+    /**
+     * Grade the listed students' enrollments in the course and report the outcome per row
+     */
+    public BulkImportReport applyGradeSheet(String courseId, List<GradeEntry> entries) {
+        Map<Integer, BulkRowResult> results = new HashMap<>();
+        Map<Integer, GradeEntry> valid = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < entries.size(); i++) {
+            int row = i + 1;
+            GradeEntry entry = entries.get(i);
+            String error = validate(entry);
+            if (error == null && !seen.add(entry.getStudentId())) {
+                error = "Student appears more than once in the sheet";
+            }
+            if (error != null) {
+                results.put(row, new BulkRowResult(row, entry != null ? entry.getStudentId() : null, "INVALID", error));
+            } else {
+                valid.put(row, entry);
+            }
+        }
+
+        Query query = new Query(Criteria.where("studentId").in(seen).and("courseId").is(courseId));
+        query.fields().include("studentId", "status", "gradePoint", "gradedCredits");
+        Map<String, Enrollment> enrollments = mongoTemplate.find(query, Enrollment.class).stream()
+                .collect(Collectors.toMap(Enrollment::getStudentId, Function.identity()));
+
+        int credits = gpaService.creditHoursFor(courseId);
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Enrollment.class);
+        List<Integer> bulkRows = new ArrayList<>();
+        Map<Integer, GradeChange> changes = new HashMap<>();
+
+        for (Map.Entry<Integer, GradeEntry> item : valid.entrySet()) {
+            int row = item.getKey();
+            GradeEntry entry = item.getValue();
+            Enrollment enrollment = enrollments.get(entry.getStudentId());
+            if (enrollment == null) {
+                results.put(row, new BulkRowResult(row, entry.getStudentId(), "NOT_ENROLLED",
+                        "Student is not enrolled in this course"));
+                continue;
+            }
+
+            int gradedCredits = "DROPPED".equals(enrollment.getStatus()) ? 0 : credits;
+            bulk.updateOne(new Query(new Criteria().andOperator(Criteria.where("id").is(enrollment.getId()),
+                    GpaService.contributionUnchanged(enrollment))), new Update()
+                    .set("grade", entry.getGrade())
+                    .set("gradePoint", entry.getGradePoint())
+                    .set("finalScore", entry.getFinalScore())
+                    .set("gradedCredits", gradedCredits)
+                    .set("updatedAt", now));
+            bulkRows.add(row);
+            changes.put(row, new GradeChange(enrollment, entry.getGradePoint(), gradedCredits));
+        }
+
+        if (!bulkRows.isEmpty()) {
+            long matched;
+            try {
+                matched = bulk.execute().getMatchedCount();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    int row = bulkRows.get(error.getIndex());
+                    results.put(row, new BulkRowResult(row, valid.get(row).getStudentId(), "FAILED", error.getMessage()));
+                    changes.remove(row);
+                }
+                matched = e.getResult().getMatchedCount();
+            }
+
+            if (matched < changes.size()) {
+                // Some enrollments changed after they were read, so not every delta is known to be right
+                reportConflicts(valid, changes, results);
+                gpaService.recompute(changes.values().stream()
+                        .map(change -> change.previous().getStudentId())
+                        .collect(Collectors.toSet()));
+            } else {
+                // Only the written grades move GPAs, each by the difference from its previous grade
+                gpaService.applyGradeChanges(new ArrayList<>(changes.values()));
+            }
+            for (int row : bulkRows) {
+                results.putIfAbsent(row, new BulkRowResult(row, valid.get(row).getStudentId(), "UPDATED", null));
+            }
+            courseRosterService.invalidate(courseId);
+        }
+
+        BulkImportReport report = new BulkImportReport();
+        for (int row = 1; row <= entries.size(); row++) {
+            report.add(results.get(row));
+        }
+        return report;
+    }
+
+    /**
+     * Mark rows whose grade did not end up stored as conflicts; their enrollment changed before the write
+     */
+    private void reportConflicts(Map<Integer, GradeEntry> valid, Map<Integer, GradeChange> changes,
+                                 Map<Integer, BulkRowResult> results) {
+        Set<String> ids = changes.values().stream()
+                .map(change -> change.previous().getId())
+                .collect(Collectors.toSet());
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("grade", "gradePoint", "finalScore");
+        Map<String, Enrollment> stored = mongoTemplate.find(query, Enrollment.class).stream()
+                .collect(Collectors.toMap(Enrollment::getId, Function.identity()));
+
+        for (Map.Entry<Integer, GradeChange> change : changes.entrySet()) {
+            int row = change.getKey();
+            GradeEntry entry = valid.get(row);
+            Enrollment current = stored.get(change.getValue().previous().getId());
+            if (current == null || !Objects.equals(current.getGrade(), entry.getGrade())
+                    || current.getGradePoint() != entry.getGradePoint()
+                    || current.getFinalScore() != entry.getFinalScore()) {
+                results.put(row, new BulkRowResult(row, entry.getStudentId(), "CONFLICT",
+                        "Enrollment changed while the sheet was applied; grade not written"));
+            }
+        }
+    }
+
+    /**
+     * Validate entry, returning the first problem or null if the row is valid
+     */
+    private String validate(GradeEntry entry) {
+        if (entry == null) {
+            return "Row is empty";
+        }
+        Set<ConstraintViolation<GradeEntry>> violations = validator.validate(entry);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+}
@@ -2,8 +2,10 @@ package edu.iti.schoolmis.service;
 
 import edu.iti.schoolmis.entity.Payment;
 import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
 import edu.iti.schoolmis.repository.PaymentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,6 +19,9 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private AtomicUpdateRepository atomicUpdateRepository;
+
     /**
      * Create payment record
      */
@@ -76,27 +81,25 @@ public class PaymentService {
      * Update payment status
      */
     public Payment updatePaymentStatus(String id, String status) {
-        Payment payment = paymentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + id));
+        Update update = new Update()
+                .set("status", status)
+                .set("updatedAt", LocalDateTime.now());
 
-        payment.setStatus(status);
-        payment.setUpdatedAt(LocalDateTime.now());
-
-        return paymentRepository.save(payment);
+        return atomicUpdateRepository.updateByIdAndGet(Payment.class, id, update)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + id));
     }
 
     /**
      * Record payment completion
      */
     public Payment completePayment(String id, String transactionId) {
-        Payment payment = paymentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + id));
-
-        payment.setStatus("COMPLETED");
-        payment.setTransactionId(transactionId);
-        payment.setUpdatedAt(LocalDateTime.now());
+        Update update = new Update()
+                .set("status", "COMPLETED")
+                .set("transactionId", transactionId)
+                .set("updatedAt", LocalDateTime.now());
 
-        return paymentRepository.save(payment);
+        return atomicUpdateRepository.updateByIdAndGet(Payment.class, id, update)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + id));
     }
 
     /**
@@ -0,0 +1,143 @@
+package edu.iti.schoolmis.service;
+
+import edu.iti.schoolmis.dto.Expanded;
+import edu.iti.schoolmis.dto.ReferenceSummary;
+import edu.iti.schoolmis.entity.Attendance;
+import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.entity.Payment;
+import edu.iti.schoolmis.entity.Student;
+import edu.iti.schoolmis.entity.StudentDocument;
+import edu.iti.schoolmis.entity.User;
+import edu.iti.schoolmis.repository.CourseRepository;
+import edu.iti.schoolmis.repository.StudentRepository;
+import edu.iti.schoolmis.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Request-scoped batch loader for the students and courses referenced by list responses.
+ * All ids of one kind across a list are resolved with a single findAllById and memoized for
+ * the rest of the request, so expanding a list costs one query per kind instead of one per row.
+ */
+@Component
+@RequestScope
+public class ReferenceLoader {
+
+    public static final String STUDENT = "student";
+
+    public static final String COURSE = "course";
+
+    public static final Map<String, Function<Enrollment, String>> ENROLLMENT_REFERENCES =
+            Map.of(STUDENT, Enrollment::getStudentId, COURSE, Enrollment::getCourseId);
+
+    public static final Map<String, Function<Attendance, String>> ATTENDANCE_REFERENCES =
+            Map.of(STUDENT, Attendance::getStudentId, COURSE, Attendance::getCourseId);
+
+    public static final Map<String, Function<Payment, String>> PAYMENT_REFERENCES =
+            Map.of(STUDENT, Payment::getStudentId);
+
+    public static final Map<String, Function<StudentDocument, String>> DOCUMENT_REFERENCES =
+            Map.of(STUDENT, StudentDocument::getStudentId);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    // Empty marks an id already looked up and not found
+    private final Map<String, Optional<ReferenceSummary>> students = new HashMap<>();
+
+    private final Map<String, Optional<ReferenceSummary>> courses = new HashMap<>();
+
+    /**
+     * Wrap items, embedding the references named in expand (comma separated, e.g. "student,course").
+     * A null or blank expand returns the items unchanged.
+     */
+    public <T> List<Expanded<T>> expand(List<T> items, String expand, Map<String, Function<T, String>> references) {
+        Set<String> kinds = parse(expand, references.keySet());
+        for (String kind : kinds) {
+            Function<T, String> reference = references.get(kind);
+            prefetch(kind, items.stream().map(reference).filter(Objects::nonNull).collect(Collectors.toSet()));
+        }
+
+        return items.stream().map(item -> {
+            Map<String, ReferenceSummary> expanded = new LinkedHashMap<>();
+            for (String kind : kinds) {
+                String id = references.get(kind).apply(item);
+                if (id != null) {
+                    memo(kind).get(id).ifPresent(summary -> expanded.put(kind, summary));
+                }
+            }
+            return new Expanded<>(item, expanded);
+        }).collect(Collectors.toList());
+    }
+
+    private static Set<String> parse(String expand, Set<String> supported) {
+        if (expand == null || expand.isBlank()) {
+            return Set.of();
+        }
+
+        Set<String> kinds = new LinkedHashSet<>();
+        for (String kind : Arrays.stream(expand.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList()) {
+            if (!supported.contains(kind)) {
+                throw new IllegalArgumentException("Cannot expand '" + kind + "', supported: " + supported);
+            }
+            kinds.add(kind);
+        }
+        return kinds;
+    }
+
+    private void prefetch(String kind, Set<String> ids) {
+        Map<String, Optional<ReferenceSummary>> memo = memo(kind);
+        Set<String> missing = ids.stream().filter(id -> !memo.containsKey(id)).collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<String, ReferenceSummary> loaded = STUDENT.equals(kind) ? loadStudents(missing) : loadCourses(missing);
+        missing.forEach(id -> memo.put(id, Optional.ofNullable(loaded.get(id))));
+    }
+
+    private Map<String, Optional<ReferenceSummary>> memo(String kind) {
+        return STUDENT.equals(kind) ? students : courses;
+    }
+
+    private Map<String, ReferenceSummary> loadStudents(Set<String> ids) {
+        List<Student> found = studentRepository.findAllById(ids);
+        Map<String, User> users = userRepository.findAllById(found.stream()
+                        .map(Student::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return found.stream().collect(Collectors.toMap(Student::getId, student -> {
+            User user = student.getUserId() != null ? users.get(student.getUserId()) : null;
+            String name = user != null ? user.getFirstName() + " " + user.getLastName() : null;
+            return new ReferenceSummary(student.getId(), name, student.getStudentId());
+        }));
+    }
+
+    private Map<String, ReferenceSummary> loadCourses(Set<String> ids) {
+        return courseRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Course::getId,
+                        course -> new ReferenceSummary(course.getId(), course.getCourseName(), course.getCourseCode())));
+    }
+}
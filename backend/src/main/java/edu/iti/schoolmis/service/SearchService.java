@@ -0,0 +1,313 @@
+package edu.iti.schoolmis.service;
+
+import edu.iti.schoolmis.dto.AutocompleteSuggestion;
+import edu.iti.schoolmis.dto.SearchHit;
+import edu.iti.schoolmis.dto.SearchResponse;
+import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.entity.Student;
+import edu.iti.schoolmis.entity.Teacher;
+import edu.iti.schoolmis.entity.User;
+import edu.iti.schoolmis.repository.StudentRepository;
+import edu.iti.schoolmis.repository.TeacherRepository;
+import edu.iti.schoolmis.search.InvertedIndex;
+import edu.iti.schoolmis.search.PrefixIndex;
+import edu.iti.schoolmis.search.SearchDocument;
+import edu.iti.schoolmis.search.SearchDocument.Field;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for full-text search and autocomplete over users, students, teachers and courses.
+ * Both indexes live in memory and are updated by the service write paths on this node;
+ * a periodic rebuild from MongoDB picks up writes made on other nodes.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    public static final String TYPE_STUDENT = "STUDENT";
+
+    public static final String TYPE_TEACHER = "TEACHER";
+
+    public static final String TYPE_COURSE = "COURSE";
+
+    public static final String TYPE_USER = "USER";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final double NAME_BOOST = 2.0;
+
+    private static final double CODE_BOOST = 3.0;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    /**
+     * Full-text and prefix indexes, swapped together on rebuild
+     */
+    private record Indexes(InvertedIndex text, PrefixIndex prefix) {
+
+        Indexes() {
+            this(new InvertedIndex(), new PrefixIndex());
+        }
+
+        void put(SearchDocument document) {
+            text.put(document);
+            prefix.put(document);
+        }
+
+        void remove(String key) {
+            text.remove(key);
+            prefix.remove(key);
+        }
+    }
+
+    /**
+     * Indexes being loaded by a rebuild, and the live writes made meanwhile.
+     * Live writes are applied immediately and replayed before the swap, so a document
+     * the rebuild read before a concurrent update or delete cannot overwrite it.
+     */
+    private record Rebuild(Indexes indexes, Map<String, Optional<SearchDocument>> writes) {
+
+        Rebuild() {
+            this(new Indexes(), new ConcurrentHashMap<>());
+        }
+
+        void put(SearchDocument document) {
+            writes.put(document.key(), Optional.of(document));
+            indexes.put(document);
+        }
+
+        void remove(String key) {
+            writes.put(key, Optional.empty());
+            indexes.remove(key);
+        }
+
+        void load(SearchDocument document) {
+            if (!writes.containsKey(document.key())) {
+                indexes.put(document);
+            }
+        }
+
+        void replay() {
+            writes.forEach((key, document) -> document.ifPresentOrElse(indexes::put, () -> indexes.remove(key)));
+        }
+    }
+
+    private volatile Indexes indexes = new Indexes();
+
+    private volatile Rebuild building;
+
+    /**
+     * Search by name, email, student ID, teacher ID, course code or course name
+     */
+    public SearchResponse search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(page, 0);
+
+        InvertedIndex.Results results = indexes.text().search(query, pageNumber * pageSize, pageSize);
+        List<SearchHit> hits = results.hits().stream()
+                .map(hit -> new SearchHit(hit.document().type(), hit.document().id(),
+                        hit.document().title(), hit.document().subtitle(), hit.score()))
+                .collect(Collectors.toList());
+
+        return new SearchResponse(query, results.total(), pageNumber, pageSize, hits);
+    }
+
+    /**
+     * Suggestions whose ID, name, email, course code or course name starts with prefix
+     */
+    public List<AutocompleteSuggestion> autocomplete(String prefix, String type, int limit) {
+        int maxResults = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        String documentType = type != null && !type.isBlank() ? type.toUpperCase(Locale.ROOT) : null;
+        return indexes.prefix().complete(prefix, documentType, maxResults).stream()
+                .map(document -> new AutocompleteSuggestion(document.type(), document.id(),
+                        document.title(), document.subtitle()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Add or refresh a student, resolving the name from its user account
+     */
+    public void indexStudent(Student student) {
+        put(studentDocument(student, findUser(student.getUserId())));
+    }
+
+    /**
+     * Add or refresh many students, resolving their names with one query
+     */
+    public void indexStudents(List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        Map<String, User> users = findUsers(students.stream()
+                .map(Student::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+        students.forEach(s -> put(studentDocument(s, users.get(s.getUserId()))));
+    }
+
+    /**
+     * Add or refresh a teacher, resolving the name from its user account
+     */
+    public void indexTeacher(Teacher teacher) {
+        put(teacherDocument(teacher, findUser(teacher.getUserId())));
+    }
+
+    public void indexCourse(Course course) {
+        put(courseDocument(course));
+    }
+
+    /**
+     * Add or refresh a user and the student and teacher profiles that show its name
+     */
+    public void indexUser(User user) {
+        put(userDocument(user));
+        studentRepository.findByUserId(user.getId()).ifPresent(s -> put(studentDocument(s, user)));
+        teacherRepository.findByUserId(user.getId()).ifPresent(t -> put(teacherDocument(t, user)));
+    }
+
+    /**
+     * Add users that were just created; they have no profiles to refresh yet
+     */
+    public void indexNewUsers(List<User> users) {
+        users.forEach(user -> put(userDocument(user)));
+    }
+
+    public void remove(String type, String id) {
+        String key = SearchDocument.key(type, id);
+        indexes.remove(key);
+        Rebuild pending = building;
+        if (pending != null) {
+            pending.remove(key);
+        }
+    }
+
+    public int size() {
+        return indexes.text().size();
+    }
+
+    /**
+     * Rebuild both indexes from MongoDB and swap them in
+     */
+    @Scheduled(fixedDelayString = "${search.rebuild-interval-ms:3600000}", initialDelay = 0)
+    public void rebuild() {
+        Rebuild rebuild = new Rebuild();
+        building = rebuild;
+        try {
+            Query userQuery = new Query();
+            userQuery.fields().include("firstName", "lastName", "email");
+            Map<String, User> users = mongoTemplate.find(userQuery, User.class).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+
+            users.values().forEach(u -> rebuild.load(userDocument(u)));
+            studentRepository.findAll().forEach(s -> rebuild.load(studentDocument(s, users.get(s.getUserId()))));
+            teacherRepository.findAll().forEach(t -> rebuild.load(teacherDocument(t, users.get(t.getUserId()))));
+            mongoTemplate.findAll(Course.class).forEach(c -> rebuild.load(courseDocument(c)));
+
+            // Writes made after this point also go straight into the new indexes
+            rebuild.replay();
+            Indexes fresh = rebuild.indexes();
+            indexes = fresh;
+            log.info("Search index rebuilt with {} documents and {} prefix terms",
+                    fresh.text().size(), fresh.prefix().size());
+        } catch (Exception ex) {
+            log.warn("Could not rebuild search index", ex);
+        } finally {
+            building = null;
+        }
+    }
+
+    private void put(SearchDocument document) {
+        indexes.put(document);
+        Rebuild pending = building;
+        if (pending != null) {
+            pending.put(document);
+        }
+    }
+
+    private User findUser(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        Query query = Query.query(Criteria.where("id").is(userId));
+        query.fields().include("firstName", "lastName");
+        return mongoTemplate.findOne(query, User.class);
+    }
+
+    private Map<String, User> findUsers(List<String> userIds) {
+        Query query = Query.query(Criteria.where("id").in(userIds));
+        query.fields().include("firstName", "lastName");
+        return mongoTemplate.find(query, User.class).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private static SearchDocument userDocument(User user) {
+        String name = fullName(user);
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.keyword(user.getEmail(), CODE_BOOST));
+        fields.add(Field.text(name, NAME_BOOST));
+        return new SearchDocument(TYPE_USER, user.getId(),
+                name != null ? name : user.getEmail(), user.getEmail(), fields);
+    }
+
+    private static SearchDocument studentDocument(Student student, User user) {
+        String name = fullName(user);
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.keyword(student.getStudentId(), CODE_BOOST));
+        fields.add(Field.text(name, NAME_BOOST));
+        return new SearchDocument(TYPE_STUDENT, student.getId(),
+                name != null ? name : student.getStudentId(), student.getStudentId(), fields);
+    }
+
+    private static SearchDocument teacherDocument(Teacher teacher, User user) {
+        String name = fullName(user);
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.keyword(teacher.getTeacherId(), CODE_BOOST));
+        fields.add(Field.text(name, NAME_BOOST));
+        return new SearchDocument(TYPE_TEACHER, teacher.getId(),
+                name != null ? name : teacher.getTeacherId(), teacher.getTeacherId(), fields);
+    }
+
+    private static SearchDocument courseDocument(Course course) {
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.keyword(course.getCourseCode(), CODE_BOOST));
+        fields.add(Field.text(course.getCourseName(), NAME_BOOST));
+        return new SearchDocument(TYPE_COURSE, course.getId(),
+                course.getCourseName(), course.getCourseCode(), fields);
+    }
+
+    private static String fullName(User user) {
+        if (user == null) {
+            return null;
+        }
+        String name = ((user.getFirstName() != null ? user.getFirstName() : "") + " "
+                + (user.getLastName() != null ? user.getLastName() : "")).trim();
+        return name.isEmpty() ? null : name;
+    }
+}
@@ -0,0 +1,308 @@
+package edu.iti.schoolmis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import edu.iti.schoolmis.dto.BulkImportReport;
+import edu.iti.schoolmis.dto.BulkRowResult;
+import edu.iti.schoolmis.dto.StudentImportStatus;
+import edu.iti.schoolmis.dto.StudentRequest;
+import edu.iti.schoolmis.entity.Student;
+import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.exception.ServiceBusyException;
+import edu.iti.schoolmis.util.StreamingRecordReader;
+import edu.iti.schoolmis.util.StreamingRecordReader.ParsedRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for importing many student profiles in one upload, in the background.
+ * The upload is spooled to a temporary file so the request returns as soon as it is received;
+ * a worker then streams the rows in batches, validates them in parallel and writes each batch
+ * with one unordered bulk insert. The unique studentId index reports duplicates.
+ * Job progress and reports are held in memory on the node that runs it.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Value("${student-import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${student-import.threads:1}")
+    private int threads;
+
+    @Value("${student-import.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${student-import.job-retention-ms:86400000}")
+    private long jobRetentionInMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "student-import-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Receive a CSV or JSON upload and start importing it; returns once the upload is stored
+     */
+    public StudentImportStatus start(InputStream input, String contentType) throws IOException {
+        Path upload = Files.createTempFile("student-import-", ".upload");
+        try {
+            Files.copy(input, upload, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, upload, contentType));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(upload);
+            throw new ServiceBusyException("Too many student imports in progress, please retry later", 30, e);
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * Current progress of a job
+     */
+    public StudentImportStatus getStatus(String jobId) {
+        return findJob(jobId).toStatus();
+    }
+
+    /**
+     * Per-row report of a job; rows still being imported are not included yet
+     */
+    public BulkImportReport getReport(String jobId) {
+        return findJob(jobId).snapshot();
+    }
+
+    /**
+     * Forget finished jobs past their retention period
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(jobRetentionInMs));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private Job findJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Student import job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(Job job, Path upload, String contentType) {
+        try (InputStream input = Files.newInputStream(upload);
+             StreamingRecordReader<StudentRequest> reader =
+                     StreamingRecordReader.open(input, contentType, StudentRequest.class, objectMapper)) {
+            List<ParsedRecord<StudentRequest>> batch;
+            while (!(batch = reader.nextBatch(batchSize)).isEmpty()) {
+                BulkImportReport batchReport = new BulkImportReport();
+                processBatch(batch, batchReport);
+                job.append(batchReport);
+            }
+            job.finish("COMPLETED", null);
+        } catch (Exception ex) {
+            log.warn("Student import {} failed", job.id, ex);
+            job.finish("FAILED", ex.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete student import upload {}", upload, e);
+            }
+        }
+    }
+
+    /**
+     * Outcome of validating and converting one row
+     */
+    private record Prepared(ParsedRecord<StudentRequest> record, Student student, String error) {
+    }
+
+    private void processBatch(List<ParsedRecord<StudentRequest>> batch, BulkImportReport report) {
+        List<Prepared> prepared = batch.parallelStream()
+                .map(this::prepare)
+                .toList();
+
+        Map<Integer, BulkRowResult> results = new HashMap<>();
+        List<Prepared> valid = new ArrayList<>();
+        for (Prepared row : prepared) {
+            if (row.error() != null) {
+                results.put(row.record().row(), new BulkRowResult(row.record().row(), key(row.record()),
+                        "INVALID", row.error()));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        Set<Integer> failedIndexes = new HashSet<>();
+        if (!valid.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class)
+                        .insert(valid.stream().map(Prepared::student).toList())
+                        .execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    ParsedRecord<StudentRequest> record = valid.get(error.getIndex()).record();
+                    boolean duplicate = error.getCode() == DUPLICATE_KEY_ERROR;
+                    results.put(record.row(), new BulkRowResult(record.row(), key(record),
+                            duplicate ? "DUPLICATE" : "FAILED",
+                            duplicate ? "Student ID already exists" : error.getMessage()));
+                    failedIndexes.add(error.getIndex());
+                }
+            }
+        }
+
+        List<Student> created = new ArrayList<>();
+        for (int i = 0; i < valid.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                ParsedRecord<StudentRequest> record = valid.get(i).record();
+                results.put(record.row(), new BulkRowResult(record.row(), key(record), "CREATED", null));
+                created.add(valid.get(i).student());
+            }
+        }
+        searchService.indexStudents(created);
+
+        for (ParsedRecord<StudentRequest> record : batch) {
+            report.add(results.get(record.row()));
+        }
+    }
+
+    /**
+     * Validate row and build its student, or return the first problem found
+     */
+    private Prepared prepare(ParsedRecord<StudentRequest> record) {
+        if (record.error() != null) {
+            return new Prepared(record, null, record.error());
+        }
+
+        Set<ConstraintViolation<StudentRequest>> violations = validator.validate(record.value());
+        if (!violations.isEmpty()) {
+            return new Prepared(record, null, violations.iterator().next().getMessage());
+        }
+
+        try {
+            return new Prepared(record, StudentService.newStudent(record.value()), null);
+        } catch (DateTimeParseException e) {
+            return new Prepared(record, null, "Invalid date of birth: " + record.value().getDateOfBirth());
+        }
+    }
+
+    private static String key(ParsedRecord<StudentRequest> record) {
+        return record.value() != null ? record.value().getStudentId() : null;
+    }
+
+    /**
+     * Progress and report of one import, appended to by its worker and read by status requests
+     */
+    private static final class Job {
+
+        final String id;
+
+        final LocalDateTime startedAt = LocalDateTime.now();
+
+        private final BulkImportReport report = new BulkImportReport();
+
+        volatile String status = "RUNNING";
+
+        volatile String error;
+
+        volatile LocalDateTime finishedAt;
+
+        Job(String id) {
+            this.id = id;
+        }
+
+        synchronized void append(BulkImportReport batchReport) {
+            batchReport.getRows().forEach(report::add);
+        }
+
+        synchronized BulkImportReport snapshot() {
+            return new BulkImportReport(report.getTotal(), report.getSucceeded(), report.getFailed(),
+                    new ArrayList<>(report.getRows()));
+        }
+
+        void finish(String finalStatus, String failure) {
+            error = failure;
+            status = finalStatus;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized StudentImportStatus toStatus() {
+            return new StudentImportStatus(id, status, report.getTotal(), report.getSucceeded(),
+                    report.getFailed(), error, startedAt, finishedAt);
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package edu.iti.schoolmis.service;
 
+import edu.iti.schoolmis.dto.CursorPage;
+import edu.iti.schoolmis.dto.StudentOverviewResponse;
 import edu.iti.schoolmis.dto.StudentRequest;
 import edu.iti.schoolmis.dto.StudentResponse;
 import edu.iti.schoolmis.entity.Student;
 import edu.iti.schoolmis.exception.DuplicateResourceException;
 import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
+import edu.iti.schoolmis.repository.StudentOverviewRepository;
 import edu.iti.schoolmis.repository.StudentRepository;
+import edu.iti.schoolmis.util.CursorPaging;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service for student management
@@ -23,35 +30,29 @@ public class StudentService {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Autowired
+    private StudentOverviewRepository studentOverviewRepository;
+
+    @Autowired
+    private SearchService searchService;
+
     /**
      * Create a new student
      */
     public StudentResponse createStudent(StudentRequest request) {
-        // Check if student already exists
-        if (studentRepository.findByStudentId(request.getStudentId()).isPresent()) {
-            throw new DuplicateResourceException("Student ID already exists");
-        }
-
-        Student student = new Student();
-        student.setUserId(request.getUserId());
-        student.setStudentId(request.getStudentId());
-        student.setGender(request.getGender());
-        student.setParentName(request.getParentName());
-        student.setParentPhone(request.getParentPhone());
-        student.setParentEmail(request.getParentEmail());
-        student.setEnrollmentDate(LocalDate.now());
-        student.setActive(true);
-        student.setGpa(0.0);
-        student.setCreatedAt(LocalDateTime.now());
-        student.setUpdatedAt(LocalDateTime.now());
-
-        // Parse date of birth
-        if (request.getDateOfBirth() != null && !request.getDateOfBirth().isEmpty()) {
-            DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE;
-            student.setDateOfBirth(LocalDate.parse(request.getDateOfBirth(), formatter));
+        Student student = newStudent(request);
+
+        // Unique studentId index rejects duplicates in the same round trip as the insert
+        Student savedStudent;
+        try {
+            savedStudent = studentRepository.insert(student);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateResourceException("Student ID already exists", e);
         }
-
-        Student savedStudent = studentRepository.save(student);
+        searchService.indexStudent(savedStudent);
         return mapStudentToResponse(savedStudent);
     }
 
@@ -83,67 +84,64 @@ public class StudentService {
     }
 
     /**
-     * Get all active students
+     * Get one page of active students ordered by student ID
      */
-    public List<StudentResponse> getAllActiveStudents() {
-        return studentRepository.findByActive(true).stream()
-                .map(this::mapStudentToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<StudentResponse> getAllActiveStudents(String cursor, int size) {
+        Pageable limit = CursorPaging.lookAhead(size);
+        String after = CursorPaging.afterKey(cursor);
+        List<Student> students = after == null
+                ? studentRepository.findPageByActive(true, limit)
+                : studentRepository.findPageByActiveAfter(true, after, limit);
+        return CursorPaging.toPage(students, size, Student::getStudentId, this::mapStudentToResponse);
     }
 
     /**
-     * Get students by level
+     * Get one page of students at the given level ordered by student ID
      */
-    public List<StudentResponse> getStudentsByLevel(String level) {
-        return studentRepository.findByCurrentLevel(level).stream()
-                .map(this::mapStudentToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<StudentResponse> getStudentsByLevel(String level, String cursor, int size) {
+        Pageable limit = CursorPaging.lookAhead(size);
+        String after = CursorPaging.afterKey(cursor);
+        List<Student> students = after == null
+                ? studentRepository.findPageByCurrentLevel(level, limit)
+                : studentRepository.findPageByCurrentLevelAfter(level, after, limit);
+        return CursorPaging.toPage(students, size, Student::getStudentId, this::mapStudentToResponse);
     }
 
     /**
-     * Update student
+     * Update student.
+     * Only the editable profile fields are set, so GPA totals and the active flag changed
+     * concurrently by grade updates or a deactivation are left alone.
      */
     public StudentResponse updateStudent(String id, StudentRequest request) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
-
-        student.setGender(request.getGender());
-        student.setParentName(request.getParentName());
-        student.setParentPhone(request.getParentPhone());
-        student.setParentEmail(request.getParentEmail());
-        student.setUpdatedAt(LocalDateTime.now());
+        Update update = new Update()
+                .set("gender", request.getGender())
+                .set("parentName", request.getParentName())
+                .set("parentPhone", request.getParentPhone())
+                .set("parentEmail", request.getParentEmail())
+                .set("updatedAt", LocalDateTime.now());
 
         if (request.getDateOfBirth() != null && !request.getDateOfBirth().isEmpty()) {
             DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE;
-            student.setDateOfBirth(LocalDate.parse(request.getDateOfBirth(), formatter));
+            update.set("dateOfBirth", LocalDate.parse(request.getDateOfBirth(), formatter));
         }
 
-        Student updatedStudent = studentRepository.save(student);
+        Student updatedStudent = atomicUpdateRepository.updateByIdAndGet(Student.class, id, update)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+        searchService.indexStudent(updatedStudent);
         return mapStudentToResponse(updatedStudent);
     }
 
-    /**
-     * Update student GPA
-     */
-    public void updateStudentGpa(String studentId, double gpa) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
-
-        student.setGpa(gpa);
-        student.setUpdatedAt(LocalDateTime.now());
-        studentRepository.save(student);
-    }
-
     /**
      * Deactivate student
      */
     public void deactivateStudent(String id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+        Update update = new Update()
+                .set("active", false)
+                .set("updatedAt", LocalDateTime.now());
 
-        student.setActive(false);
-        student.setUpdatedAt(LocalDateTime.now());
-        studentRepository.save(student);
+        if (!atomicUpdateRepository.updateById(Student.class, id, update)) {
+            throw new ResourceNotFoundException("Student not found with id: " + id);
+        }
     }
 
     /**
@@ -154,6 +152,46 @@ public class StudentService {
             throw new ResourceNotFoundException("Student not found with id: " + id);
         }
         studentRepository.deleteById(id);
+        searchService.remove(SearchService.TYPE_STUDENT, id);
+    }
+
+    /**
+     * Get profile, active enrollments, attendance and payments in one aggregation
+     */
+    public StudentOverviewResponse getStudentOverview(String id) {
+        StudentOverviewRepository.StudentOverview overview = studentOverviewRepository.findOverview(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+
+        return new StudentOverviewResponse(
+                mapStudentToResponse(overview.student()),
+                overview.enrollments() != null ? overview.enrollments() : List.of(),
+                overview.totalPaid());
+    }
+
+    /**
+     * Build a new active student from request; throws DateTimeParseException for a bad date of birth
+     */
+    static Student newStudent(StudentRequest request) {
+        Student student = new Student();
+        student.setUserId(request.getUserId());
+        student.setStudentId(request.getStudentId());
+        student.setGender(request.getGender());
+        student.setParentName(request.getParentName());
+        student.setParentPhone(request.getParentPhone());
+        student.setParentEmail(request.getParentEmail());
+        student.setEnrollmentDate(LocalDate.now());
+        student.setActive(true);
+        student.setGpa(0.0);
+        student.setCreatedAt(LocalDateTime.now());
+        student.setUpdatedAt(LocalDateTime.now());
+
+        // Parse date of birth
+        if (request.getDateOfBirth() != null && !request.getDateOfBirth().isEmpty()) {
+            DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE;
+            student.setDateOfBirth(LocalDate.parse(request.getDateOfBirth(), formatter));
+        }
+
+        return student;
     }
 
     /**
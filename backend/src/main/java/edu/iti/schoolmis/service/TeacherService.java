@@ -3,8 +3,11 @@ package edu.iti.schoolmis.service;
 import edu.iti.schoolmis.entity.Teacher;
 import edu.iti.schoolmis.exception.DuplicateResourceException;
 import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
 import edu.iti.schoolmis.repository.TeacherRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,19 +22,30 @@ public class TeacherService {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Autowired
+    private SearchService searchService;
+
     /**
      * Create a new teacher
      */
     public Teacher createTeacher(Teacher teacher) {
-        if (teacherRepository.findByTeacherId(teacher.getTeacherId()).isPresent()) {
-            throw new DuplicateResourceException("Teacher ID already exists");
-        }
-
+        teacher.setId(null);
         teacher.setCreatedAt(LocalDateTime.now());
         teacher.setUpdatedAt(LocalDateTime.now());
         teacher.setActive(true);
 
-        return teacherRepository.save(teacher);
+        // Unique teacherId index rejects duplicates in the same round trip as the insert
+        Teacher savedTeacher;
+        try {
+            savedTeacher = teacherRepository.insert(teacher);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateResourceException("Teacher ID already exists", e);
+        }
+        searchService.indexTeacher(savedTeacher);
+        return savedTeacher;
     }
 
     /**
@@ -87,19 +101,22 @@ public class TeacherService {
         existingTeacher.setOfficePhone(teacher.getOfficePhone());
         existingTeacher.setUpdatedAt(LocalDateTime.now());
 
-        return teacherRepository.save(existingTeacher);
+        Teacher updatedTeacher = teacherRepository.save(existingTeacher);
+        searchService.indexTeacher(updatedTeacher);
+        return updatedTeacher;
     }
 
     /**
      * Deactivate teacher
      */
     public void deactivateTeacher(String id) {
-        Teacher teacher = teacherRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Teacher not found with id: " + id));
+        Update update = new Update()
+                .set("active", false)
+                .set("updatedAt", LocalDateTime.now());
 
-        teacher.setActive(false);
-        teacher.setUpdatedAt(LocalDateTime.now());
-        teacherRepository.save(teacher);
+        if (!atomicUpdateRepository.updateById(Teacher.class, id, update)) {
+            throw new ResourceNotFoundException("Teacher not found with id: " + id);
+        }
     }
 
     /**
@@ -110,6 +127,7 @@ public class TeacherService {
             throw new ResourceNotFoundException("Teacher not found with id: " + id);
         }
         teacherRepository.deleteById(id);
+        searchService.remove(SearchService.TYPE_TEACHER, id);
     }
 }
 
@@ -0,0 +1,166 @@
+package edu.iti.schoolmis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import edu.iti.schoolmis.dto.BulkImportReport;
+import edu.iti.schoolmis.dto.BulkRowResult;
+import edu.iti.schoolmis.dto.RegisterRequest;
+import edu.iti.schoolmis.entity.User;
+import edu.iti.schoolmis.security.PasswordHashingExecutor;
+import edu.iti.schoolmis.util.StreamingRecordReader;
+import edu.iti.schoolmis.util.StreamingRecordReader.ParsedRecord;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for onboarding many user accounts in one upload.
+ * Rows are streamed in batches, passwords are hashed in parallel on the bounded hashing pool
+ * and each batch is written with one unordered bulk insert; the unique email index reports duplicates.
+ */
+@Service
+public class UserOnboardingService {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Value("${onboarding.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Register every user in a CSV or JSON upload and report the outcome per row
+     */
+    public BulkImportReport registerAll(InputStream input, String contentType) throws IOException {
+        BulkImportReport report = new BulkImportReport();
+
+        try (StreamingRecordReader<RegisterRequest> reader =
+                     StreamingRecordReader.open(input, contentType, RegisterRequest.class, objectMapper)) {
+            List<ParsedRecord<RegisterRequest>> batch;
+            while (!(batch = reader.nextBatch(batchSize)).isEmpty()) {
+                processBatch(batch, report);
+            }
+        }
+
+        return report;
+    }
+
+    private void processBatch(List<ParsedRecord<RegisterRequest>> batch, BulkImportReport report) {
+        Map<Integer, BulkRowResult> results = new HashMap<>();
+        List<ParsedRecord<RegisterRequest>> valid = new ArrayList<>();
+
+        for (ParsedRecord<RegisterRequest> record : batch) {
+            String error = record.error() != null ? record.error() : validate(record.value());
+            if (error != null) {
+                String key = record.value() != null ? record.value().getEmail() : null;
+                results.put(record.row(), new BulkRowResult(record.row(), key, "INVALID", error));
+            } else {
+                valid.add(record);
+            }
+        }
+
+        // BCrypt dominates the cost of onboarding; the hashing pool spreads it across its threads
+        List<String> hashes = passwordHashingExecutor.encodeAll(valid.stream()
+                .map(record -> record.value().getPassword())
+                .toList());
+        List<User> users = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            users.add(toUser(valid.get(i).value(), hashes.get(i)));
+        }
+
+        Set<Integer> failedIndexes = Collections.emptySet();
+        if (!users.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)
+                        .insert(users)
+                        .execute();
+            } catch (BulkOperationException e) {
+                failedIndexes = new HashSet<>();
+                for (BulkWriteError error : e.getErrors()) {
+                    ParsedRecord<RegisterRequest> record = valid.get(error.getIndex());
+                    boolean duplicate = error.getCode() == DUPLICATE_KEY_ERROR;
+                    results.put(record.row(), new BulkRowResult(record.row(), record.value().getEmail(),
+                            duplicate ? "DUPLICATE" : "FAILED",
+                            duplicate ? "Email already exists" : error.getMessage()));
+                    failedIndexes.add(error.getIndex());
+                }
+            }
+        }
+
+        List<User> created = new ArrayList<>();
+        for (int i = 0; i < valid.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                ParsedRecord<RegisterRequest> record = valid.get(i);
+                results.put(record.row(), new BulkRowResult(record.row(), record.value().getEmail(),
+                        "CREATED", null));
+                created.add(users.get(i));
+            }
+        }
+        searchService.indexNewUsers(created);
+
+        for (ParsedRecord<RegisterRequest> record : batch) {
+            report.add(results.get(record.row()));
+        }
+    }
+
+    /**
+     * Validate request, returning the first problem or null if the row is valid
+     */
+    private String validate(RegisterRequest request) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+
+        try {
+            User.Role.valueOf(request.getRole().toUpperCase().trim());
+        } catch (IllegalArgumentException e) {
+            return "Invalid role: " + request.getRole() +
+                ". Valid roles are: STUDENT, TEACHER, ENROLLMENT_OFFICER, ADMIN";
+        }
+        return null;
+    }
+
+    private User toUser(RegisterRequest request, String passwordHash) {
+        User user = new User();
+        user.setEmail(request.getEmail());
+        user.setPassword(passwordHash);
+        user.setFirstName(request.getFirstName());
+        user.setLastName(request.getLastName());
+        user.setPhoneNumber(request.getPhoneNumber());
+        user.setAddress(request.getAddress());
+        user.setEnabled(true);
+        user.setRoles(Collections.singleton(User.Role.valueOf(request.getRole().toUpperCase().trim())));
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        return user;
+    }
+}
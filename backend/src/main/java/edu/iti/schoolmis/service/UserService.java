@@ -1,12 +1,22 @@
 package edu.iti.schoolmis.service;
 
+import edu.iti.schoolmis.dto.CursorPage;
 import edu.iti.schoolmis.dto.UserResponse;
 import edu.iti.schoolmis.entity.User;
 import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
 import edu.iti.schoolmis.repository.UserRepository;
+import edu.iti.schoolmis.security.UserPrincipalCache;
+import edu.iti.schoolmis.util.CursorPaging;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -18,27 +28,42 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     /**
-     * Get all users
+     * Get one page of users ordered by id
      */
-    public List<UserResponse> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(this::mapUserToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<UserResponse> getAllUsers(String cursor, int size) {
+        Pageable limit = CursorPaging.lookAhead(size);
+        String after = CursorPaging.afterKey(cursor);
+        List<User> users = after == null
+                ? userRepository.findPage(limit)
+                : userRepository.findPageAfter(parseCursor(after), limit);
+        return CursorPaging.toPage(users, size, User::getId, this::mapUserToResponse);
     }
 
     /**
-     * Get users by role
+     * Get one page of users with the given role, using the roles/_id index
      */
-    public List<UserResponse> getUsersByRole(String role) {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .filter(user -> user.getRoles() != null &&
-                       user.getRoles().stream()
-                           .anyMatch(r -> r.name().equalsIgnoreCase(role)))
-                .map(this::mapUserToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<UserResponse> getUsersByRole(String role, String cursor, int size) {
+        String roleName;
+        try {
+            roleName = User.Role.valueOf(role.toUpperCase().trim()).name();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role: " + role +
+                ". Valid roles are: STUDENT, TEACHER, ENROLLMENT_OFFICER, ADMIN");
+        }
+
+        Pageable limit = CursorPaging.lookAhead(size);
+        String after = CursorPaging.afterKey(cursor);
+        List<User> users = after == null
+                ? userRepository.findPageByRole(roleName, limit)
+                : userRepository.findPageByRoleAfter(roleName, parseCursor(after), limit);
+        return CursorPaging.toPage(users, size, User::getId, this::mapUserToResponse);
     }
 
     /**
@@ -50,6 +75,43 @@ public class UserService {
         return mapUserToResponse(user);
     }
 
+    /**
+     * Replace user roles and bump the token version so tokens with the old roles are reissued
+     */
+    public UserResponse updateUserRoles(String id, Set<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            throw new IllegalArgumentException("At least one role is required");
+        }
+
+        Set<User.Role> newRoles = EnumSet.noneOf(User.Role.class);
+        for (String role : roles) {
+            try {
+                newRoles.add(User.Role.valueOf(role.toUpperCase().trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid role: " + role +
+                    ". Valid roles are: STUDENT, TEACHER, ENROLLMENT_OFFICER, ADMIN");
+            }
+        }
+
+        // One write, so concurrent role changes each bump the version and other fields are left alone
+        Update update = new Update()
+                .set("roles", newRoles)
+                .inc("tokenVersion", 1)
+                .set("updatedAt", LocalDateTime.now());
+        User updatedUser = atomicUpdateRepository.updateByIdAndGet(User.class, id, update)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        userPrincipalCache.refresh(updatedUser);
+
+        return mapUserToResponse(updatedUser);
+    }
+
+    private static ObjectId parseCursor(String afterId) {
+        if (!ObjectId.isValid(afterId)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new ObjectId(afterId);
+    }
+
     /**
      * Map User entity to UserResponse DTO
      */
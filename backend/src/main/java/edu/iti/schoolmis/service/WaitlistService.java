@@ -0,0 +1,112 @@
+package edu.iti.schoolmis.service;
+
+import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.entity.WaitlistEntry;
+import edu.iti.schoolmis.exception.DuplicateResourceException;
+import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.WaitlistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service for per-course FIFO waitlists.
+ * Positions come from a counter on the course, and the head is claimed with findAndRemove,
+ * so each freed seat goes to exactly one waiting student even with concurrent drops.
+ */
+@Service
+public class WaitlistService {
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Queue student for a seat in the course
+     */
+    public WaitlistEntry join(String studentId, String courseId) {
+        Course course = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(courseId)),
+                new Update().inc("waitlistSequence", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Course.class);
+        if (course == null) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setCourseId(courseId);
+        entry.setStudentId(studentId);
+        entry.setPosition(course.getWaitlistSequence());
+        entry.setCreatedAt(LocalDateTime.now());
+
+        try {
+            return waitlistRepository.insert(entry);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateResourceException("Student is already on the waitlist for this course", e);
+        }
+    }
+
+    /**
+     * Remove and return the student first in line for the course, or null if nobody is waiting
+     */
+    public WaitlistEntry pollNext(String courseId) {
+        Query query = Query.query(Criteria.where("courseId").is(courseId))
+                .with(Sort.by(Sort.Direction.ASC, "position"));
+        return mongoTemplate.findAndRemove(query, WaitlistEntry.class);
+    }
+
+    /**
+     * Put a polled entry back at its original place in line
+     */
+    public void requeue(WaitlistEntry entry) {
+        try {
+            waitlistRepository.insert(entry);
+        } catch (DuplicateKeyException e) {
+            // Student queued again meanwhile; the newer entry stands
+        }
+    }
+
+    /**
+     * Waiting students for the course, first in line first
+     */
+    public List<WaitlistEntry> getCourseWaitlist(String courseId) {
+        return waitlistRepository.findByCourseIdOrderByPositionAsc(courseId);
+    }
+
+    /**
+     * Waitlists the student is on
+     */
+    public List<WaitlistEntry> getStudentWaitlists(String studentId) {
+        return waitlistRepository.findByStudentId(studentId);
+    }
+
+    /**
+     * Number of students ahead of this entry, plus one
+     */
+    public long getPlaceInLine(String id) {
+        WaitlistEntry entry = waitlistRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + id));
+        return waitlistRepository.countByCourseIdAndPositionLessThan(entry.getCourseId(), entry.getPosition()) + 1;
+    }
+
+    /**
+     * Leave the waitlist
+     */
+    public void leave(String id) {
+        if (!waitlistRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Waitlist entry not found with id: " + id);
+        }
+        waitlistRepository.deleteById(id);
+    }
+}
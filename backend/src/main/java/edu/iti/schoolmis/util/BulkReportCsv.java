@@ -0,0 +1,42 @@
+package edu.iti.schoolmis.util;
+
+import edu.iti.schoolmis.dto.BulkImportReport;
+import edu.iti.schoolmis.dto.BulkRowResult;
+
+/**
+ * Renders the failed rows of a bulk upload report as CSV, ready to fix and upload again
+ */
+public final class BulkReportCsv {
+
+    private static final String HEADER = "row,key,status,message\n";
+
+    private BulkReportCsv() {
+    }
+
+    /**
+     * CSV of every row that was not written, in upload order
+     */
+    public static String failedRows(BulkImportReport report) {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (BulkRowResult result : report.getRows()) {
+            if (result.isSuccess()) {
+                continue;
+            }
+            csv.append(result.getRow()).append(',')
+                    .append(quote(result.getKey())).append(',')
+                    .append(quote(result.getStatus())).append(',')
+                    .append(quote(result.getMessage())).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,32 @@
+package edu.iti.schoolmis.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the last sort key of a page as an opaque, URL-safe continuation token
+ */
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encode sort key as a continuation token
+     */
+    public static String encode(String sortKey) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sortKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode continuation token back to its sort key
+     */
+    public static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package edu.iti.schoolmis.util;
+
+import edu.iti.schoolmis.dto.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared keyset pagination: page size limits, a one-row look-ahead, and cursors encoded
+ * with {@link CursorCodec} from the last row's sort key
+ */
+public final class CursorPaging {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private CursorPaging() {
+    }
+
+    /**
+     * Limit requested page size to 1..MAX_PAGE_SIZE
+     */
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Limit fetching one row past the page, which tells whether another page follows
+     */
+    public static Pageable lookAhead(int size) {
+        return PageRequest.of(0, clampPageSize(size) + 1);
+    }
+
+    /**
+     * Sort key the next page starts after, or null for the first page
+     */
+    public static String afterKey(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : CursorCodec.decode(cursor);
+    }
+
+    /**
+     * Trim the look-ahead row, map the page and encode the last row's sort key as the next cursor
+     */
+    public static <E, R> CursorPage<R> toPage(List<E> rows, int size, Function<E, String> sortKey,
+                                              Function<E, R> mapper) {
+        int pageSize = clampPageSize(size);
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? CursorCodec.encode(sortKey.apply(pageRows.get(pageRows.size() - 1))) : null;
+
+        return new CursorPage<>(pageRows.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+}
@@ -0,0 +1,192 @@
+package edu.iti.schoolmis.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads records from a CSV (with header row) or JSON array upload one batch at a time,
+ * so the whole file is never held in memory. Rows that cannot be parsed are returned
+ * with an error instead of aborting the upload.
+ */
+public final class StreamingRecordReader<T> implements Closeable {
+
+    private final Class<T> type;
+
+    private final ObjectMapper objectMapper;
+
+    private final BufferedReader csvReader;
+
+    private final List<String> csvHeader;
+
+    private final JsonParser jsonParser;
+
+    private int row;
+
+    private boolean finished;
+
+    private StreamingRecordReader(Class<T> type, ObjectMapper objectMapper, BufferedReader csvReader,
+                                  List<String> csvHeader, JsonParser jsonParser) {
+        this.type = type;
+        this.objectMapper = objectMapper;
+        this.csvReader = csvReader;
+        this.csvHeader = csvHeader;
+        this.jsonParser = jsonParser;
+    }
+
+    /**
+     * Open a reader for the given content type; anything that is not JSON is read as CSV
+     */
+    public static <T> StreamingRecordReader<T> open(InputStream input, String contentType, Class<T> type,
+                                                    ObjectMapper objectMapper) throws IOException {
+        if (contentType != null && contentType.toLowerCase().contains("json")) {
+            JsonParser parser = objectMapper.getFactory().createParser(input);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IllegalArgumentException("JSON upload must be an array of records");
+            }
+            return new StreamingRecordReader<>(type, objectMapper, null, null, parser);
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            reader.close();
+            throw new IllegalArgumentException("CSV upload must start with a header row");
+        }
+        if (!headerLine.isEmpty() && headerLine.charAt(0) == '\uFEFF') {
+            headerLine = headerLine.substring(1);
+        }
+        List<String> header = parseCsvLine(headerLine).stream().map(String::trim).toList();
+        return new StreamingRecordReader<>(type, objectMapper, reader, header, null);
+    }
+
+    /**
+     * Read up to batchSize records; an empty list means the upload is exhausted
+     */
+    public List<ParsedRecord<T>> nextBatch(int batchSize) throws IOException {
+        List<ParsedRecord<T>> batch = new ArrayList<>(batchSize);
+        while (!finished && batch.size() < batchSize) {
+            ParsedRecord<T> next = jsonParser != null ? nextJson() : nextCsv();
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (jsonParser != null) {
+            jsonParser.close();
+        }
+        if (csvReader != null) {
+            csvReader.close();
+        }
+    }
+
+    private ParsedRecord<T> nextJson() throws IOException {
+        JsonToken token = jsonParser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            finished = true;
+            return null;
+        }
+
+        row++;
+        if (token != JsonToken.START_OBJECT) {
+            jsonParser.skipChildren();
+            return ParsedRecord.failed(row, "Record must be a JSON object");
+        }
+
+        // Read the whole object first so a bad field does not leave the parser mid-record
+        JsonNode node = objectMapper.readTree(jsonParser);
+        try {
+            return ParsedRecord.parsed(row, objectMapper.treeToValue(node, type));
+        } catch (JsonProcessingException e) {
+            return ParsedRecord.failed(row, "Malformed record: " + e.getOriginalMessage());
+        }
+    }
+
+    private ParsedRecord<T> nextCsv() throws IOException {
+        String line = csvReader.readLine();
+        if (line == null) {
+            finished = true;
+            return null;
+        }
+        if (line.isBlank()) {
+            return null;
+        }
+
+        row++;
+        List<String> values = parseCsvLine(line);
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < csvHeader.size() && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            fields.put(csvHeader.get(i), value.isEmpty() ? null : value);
+        }
+        try {
+            return ParsedRecord.parsed(row, objectMapper.convertValue(fields, type));
+        } catch (IllegalArgumentException e) {
+            return ParsedRecord.failed(row, "Malformed record: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and doubled quotes inside them
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * One upload row: either a parsed value or the reason it could not be parsed
+     */
+    public record ParsedRecord<T>(int row, T value, String error) {
+
+        static <T> ParsedRecord<T> parsed(int row, T value) {
+            return new ParsedRecord<>(row, value, null);
+        }
+
+        static <T> ParsedRecord<T> failed(int row, String error) {
+            return new ParsedRecord<>(row, null, error);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Token version checks of JwtAuthenticationFilter against the cached user principal
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "token";
+
+    private static final String EMAIL = "user@example.com";
+
+    @Mock
+    private JwtVerificationEngine verificationEngine;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private TokenDenylist tokenDenylist;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithCurrentVersionAuthenticates() throws Exception {
+        when(verificationEngine.verify(TOKEN)).thenReturn(Optional.of(token(2)));
+        when(userPrincipalCache.get(EMAIL)).thenReturn(Optional.of(principal(2)));
+
+        Authentication authentication = authenticate();
+
+        assertNotNull(authentication);
+        assertEquals(EMAIL, ((UserPrincipal) authentication.getPrincipal()).getEmail());
+        verify(userPrincipalCache, never()).invalidate(EMAIL);
+    }
+
+    @Test
+    void tokenIssuedBeforeRoleChangeIsRejected() throws Exception {
+        when(verificationEngine.verify(TOKEN)).thenReturn(Optional.of(token(1)));
+        when(userPrincipalCache.get(EMAIL)).thenReturn(Optional.of(principal(2)));
+
+        assertNull(authenticate());
+    }
+
+    @Test
+    void tokenNewerThanCachedUserReloadsTheEntry() throws Exception {
+        when(verificationEngine.verify(TOKEN)).thenReturn(Optional.of(token(3)));
+        when(userPrincipalCache.get(EMAIL)).thenReturn(Optional.of(principal(2)), Optional.of(principal(3)));
+
+        assertNotNull(authenticate());
+        verify(userPrincipalCache).invalidate(EMAIL);
+    }
+
+    @Test
+    void authoritiesComeFromTokenClaims() throws Exception {
+        when(verificationEngine.verify(TOKEN)).thenReturn(Optional.of(token(2)));
+        when(userPrincipalCache.get(EMAIL)).thenReturn(Optional.of(principal(2, User.Role.STUDENT, true)));
+
+        Authentication authentication = authenticate();
+
+        assertEquals(List.of("ROLE_TEACHER"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        assertEquals("user-1", ((UserPrincipal) authentication.getPrincipal()).getId());
+    }
+
+    @Test
+    void tokenWithoutClaimsUsesCachedPrincipal() throws Exception {
+        JwtPrincipal legacy = new JwtPrincipal("jti-1", EMAIL, Instant.now().plusSeconds(60), Map.of());
+        UserPrincipal cached = principal(0);
+        when(verificationEngine.verify(TOKEN)).thenReturn(Optional.of(legacy));
+        when(userPrincipalCache.get(EMAIL)).thenReturn(Optional.of(cached));
+
+        assertSame(cached, authenticate().getPrincipal());
+    }
+
+    @Test
+    void disabledUserIsRejected() throws Exception {
+        when(verificationEngine.verify(TOKEN)).thenReturn(Optional.of(token(2)));
+        when(userPrincipalCache.get(EMAIL)).thenReturn(Optional.of(principal(2, User.Role.TEACHER, false)));
+
+        assertNull(authenticate());
+    }
+
+    @Test
+    void revokedTokenIsRejected() throws Exception {
+        when(verificationEngine.verify(TOKEN)).thenReturn(Optional.of(token(2)));
+        when(tokenDenylist.isRevoked("jti-1")).thenReturn(true);
+
+        assertNull(authenticate());
+        verify(userPrincipalCache, never()).get(EMAIL);
+    }
+
+    private Authentication authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static JwtPrincipal token(long version) {
+        return new JwtPrincipal("jti-1", EMAIL, Instant.now().plusSeconds(60), Map.of(
+                JwtTokenProvider.CLAIM_USER_ID, "user-1",
+                JwtTokenProvider.CLAIM_ROLES, List.of("TEACHER"),
+                JwtTokenProvider.CLAIM_VERSION, version));
+    }
+
+    private static UserPrincipal principal(long tokenVersion) {
+        return principal(tokenVersion, User.Role.TEACHER, true);
+    }
+
+    private static UserPrincipal principal(long tokenVersion, User.Role role, boolean enabled) {
+        User user = new User();
+        user.setId("user-1");
+        user.setEmail(EMAIL);
+        user.setRoles(Set.of(role));
+        user.setEnabled(enabled);
+        user.setTokenVersion(tokenVersion);
+        return UserPrincipal.from(user);
+    }
+}
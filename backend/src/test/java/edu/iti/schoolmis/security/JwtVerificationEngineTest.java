@@ -0,0 +1,94 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verification cache of JwtVerificationEngine, backed by a real JwtTokenProvider
+ */
+class JwtVerificationEngineTest {
+
+    private JwtTokenProvider tokenProvider;
+
+    private JwtVerificationEngine verificationEngine;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = provider("test-secret-test-secret-test-secret-test-secret-test-secret-test-secret");
+
+        verificationEngine = new JwtVerificationEngine();
+        ReflectionTestUtils.setField(verificationEngine, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(verificationEngine, "maxCacheSize", 2);
+    }
+
+    @Test
+    void sameTokenIsVerifiedOnce() {
+        String token = tokenProvider.generateToken(user(3));
+
+        JwtPrincipal first = verificationEngine.verify(token).orElseThrow();
+        JwtPrincipal second = verificationEngine.verify(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("user@example.com", first.getSubject());
+        assertEquals(3, first.getTokenVersion());
+        assertEquals(Set.of(User.Role.TEACHER), first.getRoles());
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejectedAndNotCached() {
+        JwtTokenProvider otherProvider = provider("other-secret-other-secret-other-secret-other-secret-other-secret");
+
+        assertEquals(Optional.empty(), verificationEngine.verify(otherProvider.generateToken(user(0))));
+        assertEquals(Optional.empty(), verificationEngine.verify(null));
+        assertEquals(0, verificationEngine.size());
+    }
+
+    @Test
+    void invalidatedTokenIsParsedAgain() {
+        String token = tokenProvider.generateToken(user(0));
+        JwtPrincipal first = verificationEngine.verify(token).orElseThrow();
+
+        verificationEngine.invalidate(token);
+
+        assertNotSame(first, verificationEngine.verify(token).orElseThrow());
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(verificationEngine.verify(tokenProvider.generateRefreshToken("user" + i + "@example.com"))
+                    .isPresent());
+        }
+
+        assertTrue(verificationEngine.size() <= 2);
+    }
+
+    private static JwtTokenProvider provider(String secret) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 60_000L);
+        ReflectionTestUtils.setField(provider, "refreshTokenExpirationInMs", 120_000L);
+        provider.init();
+        return provider;
+    }
+
+    private static User user(long tokenVersion) {
+        User user = new User();
+        user.setId("user-1");
+        user.setEmail("user@example.com");
+        user.setRoles(Set.of(User.Role.TEACHER));
+        user.setEnabled(true);
+        user.setTokenVersion(tokenVersion);
+        return user;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.iti.schoolmis.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Token accounting and memory bound of TokenBucketLimiter
+ */
+class TokenBucketLimiterTest {
+
+    @Test
+    void allowsBurstUpToCapacityThenReportsWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 0.001, 4, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client"));
+        }
+        assertTrue(limiter.tryAcquire("client") > 0);
+        assertEquals(0, limiter.tryAcquire("other-client"));
+    }
+
+    @Test
+    void newKeyOnFullStripeIsStillThrottled() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 0.001, 1, 2);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("b"));
+        assertEquals(0, limiter.tryAcquire("c"));
+        assertTrue(limiter.tryAcquire("c") > 0);
+        assertTrue(limiter.size() <= 2);
+    }
+
+    @Test
+    void sweepDropsOnlyRefilledBuckets() throws InterruptedException {
+        TokenBucketLimiter fast = new TokenBucketLimiter(1, 1000, 1, 10);
+        fast.tryAcquire("client");
+        Thread.sleep(5);
+        fast.sweep();
+        assertEquals(0, fast.size());
+
+        TokenBucketLimiter slow = new TokenBucketLimiter(1, 0.001, 1, 10);
+        slow.tryAcquire("client");
+        slow.sweep();
+        assertEquals(1, slow.size());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws InterruptedException {
+        int capacity = 50;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(capacity, 0.001, 4, 100);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.tryAcquire("client") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(capacity, allowed.get());
+    }
+}
@@ -0,0 +1,87 @@
+package edu.iti.schoolmis.security;
+
+import edu.iti.schoolmis.entity.RevokedToken;
+import edu.iti.schoolmis.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bloom filter shortcut and one-time revocation of TokenDenylist
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenDenylistTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenDenylist tokenDenylist;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenDenylist, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(tokenDenylist, "falsePositiveRate", 0.01);
+        tokenDenylist.init();
+    }
+
+    @Test
+    void checksDatabaseUntilFilterIsLoaded() {
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        assertTrue(tokenDenylist.isRevoked("jti-1"));
+    }
+
+    @Test
+    void loadedFilterAnswersUnknownIdsWithoutDatabase() {
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(new RevokedToken("jti-1", "user@example.com", LocalDateTime.now().plusHours(1),
+                        LocalDateTime.now())));
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+        tokenDenylist.rebuild();
+
+        assertFalse(tokenDenylist.isRevoked("jti-2"));
+        verify(revokedTokenRepository, never()).existsById("jti-2");
+        assertTrue(tokenDenylist.isRevoked("jti-1"));
+    }
+
+    @Test
+    void revokedIdIsSeenLocallyRightAway() {
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of());
+        tokenDenylist.rebuild();
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        assertTrue(tokenDenylist.revoke("jti-1", "user@example.com", Instant.now().plusSeconds(60)));
+        assertTrue(tokenDenylist.isRevoked("jti-1"));
+    }
+
+    @Test
+    void secondRevocationOfSameIdFails() {
+        when(revokedTokenRepository.insert(any(RevokedToken.class))).thenThrow(new DuplicateKeyException("duplicate"));
+
+        assertFalse(tokenDenylist.revoke("jti-1", "user@example.com", null));
+    }
+
+    @Test
+    void nullIdIsNeverRevoked() {
+        assertFalse(tokenDenylist.isRevoked(null));
+        verify(revokedTokenRepository, never()).existsById(anyString());
+    }
+}
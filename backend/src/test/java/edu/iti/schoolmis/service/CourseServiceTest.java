@@ -0,0 +1,126 @@
+package edu.iti.schoolmis.service;
+
+import com.mongodb.client.result.UpdateResult;
+import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.exception.CourseFullException;
+import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
+import edu.iti.schoolmis.repository.CourseRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Seat accounting and partial updates of CourseService
+ */
+@ExtendWith(MockitoExtension.class)
+class CourseServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private CourseRosterService courseRosterService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private CourseService courseService;
+
+    @Test
+    void updateCourseLeavesSeatCountsAndWaitlistSequenceAlone() {
+        Course edited = new Course();
+        edited.setCourseName("Algorithms");
+        edited.setMaxCapacity(40);
+        edited.setCurrentEnrollment(0);
+        Course updated = new Course();
+        when(atomicUpdateRepository.updateByIdAndGet(eq(Course.class), eq("course-1"), any(Update.class)))
+                .thenReturn(Optional.of(updated));
+
+        assertSame(updated, courseService.updateCourse("course-1", edited));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(atomicUpdateRepository).updateByIdAndGet(eq(Course.class), eq("course-1"), update.capture());
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(1, update.getValue().getUpdateObject().size());
+        assertEquals("Algorithms", set.get("courseName"));
+        assertEquals(40, set.get("maxCapacity"));
+        assertFalse(set.containsKey("currentEnrollment"));
+        assertFalse(set.containsKey("waitlistSequence"));
+        verify(searchService).indexCourse(updated);
+    }
+
+    @Test
+    void updateCourseThrowsWhenCourseIsGone() {
+        when(atomicUpdateRepository.updateByIdAndGet(eq(Course.class), eq("course-1"), any(Update.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> courseService.updateCourse("course-1", new Course()));
+    }
+
+    @Test
+    void reserveSeatTakesOneSeatInASingleConditionalWrite() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Course.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        courseService.reserveSeat("course-1");
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(Course.class));
+        assertEquals(new Document("currentEnrollment", 1), update.getValue().getUpdateObject().get("$inc"));
+        verify(courseRepository, never()).existsById("course-1");
+    }
+
+    @Test
+    void reserveSeatOnFullCourseThrowsCourseFull() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Course.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(courseRepository.existsById("course-1")).thenReturn(true);
+
+        assertThrows(CourseFullException.class, () -> courseService.reserveSeat("course-1"));
+    }
+
+    @Test
+    void reserveSeatOnMissingCourseThrowsNotFound() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Course.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(courseRepository.existsById("course-1")).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> courseService.reserveSeat("course-1"));
+    }
+
+    @Test
+    void releaseSeatNeverDecrementsBelowZero() {
+        courseService.releaseSeat("course-1");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(query.capture(), any(UpdateDefinition.class), eq(Course.class));
+        assertEquals(new Document("$gt", 0), query.getValue().getQueryObject().get("currentEnrollment"));
+    }
+}
@@ -0,0 +1,337 @@
+package edu.iti.schoolmis.service;
+
+import edu.iti.schoolmis.dto.TransitionResult;
+import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.entity.WaitlistEntry;
+import edu.iti.schoolmis.exception.CourseFullException;
+import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.exception.ServiceBusyException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
+import edu.iti.schoolmis.repository.EnrollmentRepository;
+import edu.iti.schoolmis.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Seat, waitlist and status transition protocols of EnrollmentService
+ */
+@ExtendWith(MockitoExtension.class)
+class EnrollmentServiceTest {
+
+    private static final String COURSE = "course-1";
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Mock
+    private GpaService gpaService;
+
+    @Mock
+    private CourseService courseService;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private CourseRosterService courseRosterService;
+
+    @InjectMocks
+    private EnrollmentService enrollmentService;
+
+    @Test
+    void enrollStudentReturnsExistingEnrollmentAndReleasesSeatOnRetry() {
+        Enrollment existing = enrollment("e-1", "student-1", "ACTIVE");
+        when(enrollmentRepository.insert(any(Enrollment.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(atomicUpdateRepository.updateFirstAndGet(eq(Enrollment.class), any(Criteria.class), any(Update.class)))
+                .thenReturn(Optional.empty());
+        when(enrollmentRepository.findByStudentIdAndCourseId("student-1", COURSE)).thenReturn(Optional.of(existing));
+
+        assertSame(existing, enrollmentService.enrollStudent("student-1", COURSE));
+        verify(courseService).reserveSeat(COURSE);
+        verify(courseService).releaseSeat(COURSE);
+    }
+
+    @Test
+    void enrollStudentAfterDropReactivatesDroppedEnrollmentIntoTheSeat() {
+        Enrollment reactivated = enrollment("e-1", "student-1", "ACTIVE");
+        when(enrollmentRepository.insert(any(Enrollment.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(atomicUpdateRepository.updateFirstAndGet(eq(Enrollment.class), any(Criteria.class), any(Update.class)))
+                .thenReturn(Optional.of(reactivated));
+
+        assertSame(reactivated, enrollmentService.enrollStudent("student-1", COURSE));
+        verify(courseService).reserveSeat(COURSE);
+        verify(courseService, never()).releaseSeat(anyString());
+        verify(courseRosterService).invalidate(COURSE);
+    }
+
+    @Test
+    void enrollStudentInFullCourseDoesNotReturnDroppedEnrollment() {
+        doThrow(new CourseFullException("full")).when(courseService).reserveSeat(COURSE);
+        when(enrollmentRepository.findByStudentIdAndCourseId("student-1", COURSE))
+                .thenReturn(Optional.of(enrollment("e-1", "student-1", "DROPPED")));
+
+        assertThrows(CourseFullException.class, () -> enrollmentService.enrollStudent("student-1", COURSE));
+        verify(enrollmentRepository, never()).insert(any(Enrollment.class));
+    }
+
+    @Test
+    void activateReleasesSeatWhenAnotherRequestMovedTheEnrollmentFirst() {
+        when(enrollmentRepository.findById("e-1")).thenReturn(
+                Optional.of(enrollment("e-1", "student-1", "PENDING")),
+                Optional.of(enrollment("e-1", "student-1", "DROPPED")));
+        when(atomicUpdateRepository.updateByIdIfAndGetPrevious(eq(Enrollment.class), eq("e-1"), any(Criteria.class),
+                any(Update.class))).thenReturn(Optional.empty());
+
+        TransitionResult result = enrollmentService.activateEnrollment("e-1");
+
+        assertFalse(result.isApplied());
+        assertEquals("DROPPED", result.getStatus());
+        verify(courseService).reserveSeat(COURSE);
+        verify(courseService).releaseSeat(COURSE);
+    }
+
+    @Test
+    void activateDoesNotTakeSeatWhenStatusDoesNotAllowIt() {
+        when(enrollmentRepository.findById("e-1")).thenReturn(Optional.of(enrollment("e-1", "student-1", "ACTIVE")));
+
+        TransitionResult result = enrollmentService.activateEnrollment("e-1");
+
+        assertFalse(result.isApplied());
+        verify(courseService, never()).reserveSeat(anyString());
+    }
+
+    @Test
+    void droppingActiveEnrollmentHandsSeatToFirstWaitingStudent() {
+        Enrollment previous = enrollment("e-1", "student-1", "ACTIVE");
+        WaitlistEntry next = waitlistEntry("student-2");
+        when(atomicUpdateRepository.updateByIdIfAndGetPrevious(eq(Enrollment.class), eq("e-1"), any(Criteria.class),
+                any(Update.class))).thenReturn(Optional.of(previous));
+        when(waitlistService.pollNext(COURSE)).thenReturn(next);
+        when(enrollmentRepository.insert(any(Enrollment.class))).thenReturn(enrollment("e-2", "student-2", "ACTIVE"));
+
+        TransitionResult result = enrollmentService.dropEnrollment("e-1");
+
+        assertTrue(result.isApplied());
+        verify(courseService, never()).releaseSeat(anyString());
+        verify(gpaService).retract(previous);
+    }
+
+    @Test
+    void droppingActiveEnrollmentReleasesSeatWhenNobodyWaits() {
+        when(atomicUpdateRepository.updateByIdIfAndGetPrevious(eq(Enrollment.class), eq("e-1"), any(Criteria.class),
+                any(Update.class))).thenReturn(Optional.of(enrollment("e-1", "student-1", "ACTIVE")));
+        when(waitlistService.pollNext(COURSE)).thenReturn(null);
+
+        enrollmentService.dropEnrollment("e-1");
+
+        verify(courseService).releaseSeat(COURSE);
+    }
+
+    @Test
+    void promotionReactivatesDroppedEnrollmentOfWaitingStudent() {
+        when(atomicUpdateRepository.updateByIdIfAndGetPrevious(eq(Enrollment.class), eq("e-1"), any(Criteria.class),
+                any(Update.class))).thenReturn(Optional.of(enrollment("e-1", "student-1", "ACTIVE")));
+        when(waitlistService.pollNext(COURSE)).thenReturn(waitlistEntry("student-2"));
+        when(enrollmentRepository.insert(any(Enrollment.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(atomicUpdateRepository.updateFirstAndGet(eq(Enrollment.class), any(Criteria.class), any(Update.class)))
+                .thenReturn(Optional.of(enrollment("e-2", "student-2", "ACTIVE")));
+
+        enrollmentService.dropEnrollment("e-1");
+
+        verify(waitlistService).pollNext(COURSE);
+        verify(courseService, never()).releaseSeat(anyString());
+    }
+
+    @Test
+    void joiningWaitlistOfFullCourseLeavesTheLineUntouched() {
+        when(enrollmentRepository.findByStudentIdAndCourseId("student-1", COURSE)).thenReturn(Optional.empty());
+        when(waitlistService.join("student-1", COURSE)).thenReturn(waitlistEntry("student-1"));
+        doThrow(new CourseFullException("full")).when(courseService).reserveSeat(COURSE);
+
+        enrollmentService.joinWaitlist("student-1", COURSE);
+
+        verify(waitlistService, never()).pollNext(anyString());
+        verify(waitlistService, never()).requeue(any(WaitlistEntry.class));
+    }
+
+    @Test
+    void joiningWaitlistWithFreeSeatReservesBeforePolling() {
+        when(enrollmentRepository.findByStudentIdAndCourseId("student-1", COURSE)).thenReturn(Optional.empty());
+        when(waitlistService.join("student-1", COURSE)).thenReturn(waitlistEntry("student-1"));
+        doNothing().doThrow(new CourseFullException("full")).when(courseService).reserveSeat(COURSE);
+        when(waitlistService.pollNext(COURSE)).thenReturn(waitlistEntry("student-1"));
+        when(enrollmentRepository.insert(any(Enrollment.class))).thenReturn(enrollment("e-1", "student-1", "ACTIVE"));
+
+        enrollmentService.joinWaitlist("student-1", COURSE);
+
+        var order = inOrder(courseService, waitlistService, enrollmentRepository);
+        order.verify(courseService).reserveSeat(COURSE);
+        order.verify(waitlistService).pollNext(COURSE);
+        order.verify(enrollmentRepository).insert(any(Enrollment.class));
+        order.verify(courseService).reserveSeat(COURSE);
+        verify(courseService, never()).releaseSeat(anyString());
+    }
+
+    @Test
+    void fillingFreeSeatsPromotesWaitingStudentsUntilTheCourseIsFull() {
+        doNothing().doNothing().doThrow(new CourseFullException("full")).when(courseService).reserveSeat(COURSE);
+        when(waitlistService.pollNext(COURSE)).thenReturn(waitlistEntry("student-1"), waitlistEntry("student-2"));
+        when(enrollmentRepository.insert(any(Enrollment.class)))
+                .thenReturn(enrollment("e-1", "student-1", "ACTIVE"), enrollment("e-2", "student-2", "ACTIVE"));
+
+        assertEquals(2, enrollmentService.fillFreeSeats(COURSE));
+        verify(courseService, times(3)).reserveSeat(COURSE);
+        verify(courseService, never()).releaseSeat(anyString());
+    }
+
+    @Test
+    void joiningWaitlistAfterDropIsAllowed() {
+        when(enrollmentRepository.findByStudentIdAndCourseId("student-1", COURSE))
+                .thenReturn(Optional.of(enrollment("e-1", "student-1", "DROPPED")));
+        WaitlistEntry entry = waitlistEntry("student-1");
+        when(waitlistService.join("student-1", COURSE)).thenReturn(entry);
+        doThrow(new CourseFullException("full")).when(courseService).reserveSeat(COURSE);
+
+        assertSame(entry, enrollmentService.joinWaitlist("student-1", COURSE));
+    }
+
+    @Test
+    void failedPromotionRequeuesEntryAndReleasesSeat() {
+        WaitlistEntry next = waitlistEntry("student-2");
+        when(atomicUpdateRepository.updateByIdIfAndGetPrevious(eq(Enrollment.class), eq("e-1"), any(Criteria.class),
+                any(Update.class))).thenReturn(Optional.of(enrollment("e-1", "student-1", "ACTIVE")));
+        when(waitlistService.pollNext(COURSE)).thenReturn(next);
+        when(enrollmentRepository.insert(any(Enrollment.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> enrollmentService.dropEnrollment("e-1"));
+        verify(waitlistService).requeue(next);
+        verify(courseService).releaseSeat(COURSE);
+    }
+
+    @Test
+    void deletingActiveEnrollmentFreesSeatAndRetractsGrade() {
+        Enrollment removed = enrollment("e-1", "student-1", "ACTIVE");
+        when(atomicUpdateRepository.removeByIdAndGet(Enrollment.class, "e-1")).thenReturn(Optional.of(removed));
+        when(waitlistService.pollNext(COURSE)).thenReturn(null);
+
+        enrollmentService.deleteEnrollment("e-1");
+
+        verify(courseService).releaseSeat(COURSE);
+        verify(gpaService).retract(removed);
+    }
+
+    @Test
+    void deleteThatLostTheRaceFreesNothing() {
+        when(atomicUpdateRepository.removeByIdAndGet(Enrollment.class, "e-1")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> enrollmentService.deleteEnrollment("e-1"));
+        verify(courseService, never()).releaseSeat(anyString());
+        verify(gpaService, never()).retract(any(Enrollment.class));
+    }
+
+    @Test
+    void gradeUpdateAppliesDeltaAgainstTheGradeItReplaced() {
+        Enrollment current = enrollment("e-1", "student-1", "ACTIVE");
+        when(enrollmentRepository.findById("e-1")).thenReturn(Optional.of(current));
+        when(gpaService.creditHoursFor(COURSE)).thenReturn(3);
+        when(atomicUpdateRepository.updateByIdIf(eq(Enrollment.class), eq("e-1"), any(Criteria.class), any(Update.class)))
+                .thenReturn(true);
+
+        Enrollment updated = enrollmentService.updateEnrollmentGrade("e-1", "A", 4.0, 95.0);
+
+        assertEquals(3, updated.getGradedCredits());
+        assertEquals(4.0, updated.getGradePoint());
+        verify(gpaService).applyGradeChange(same(current), eq(4.0), eq(3));
+    }
+
+    @Test
+    void gradeUpdateRereadsAfterLosingToConcurrentChange() {
+        Enrollment stale = enrollment("e-1", "student-1", "ACTIVE");
+        Enrollment graded = enrollment("e-1", "student-1", "ACTIVE");
+        graded.setGradePoint(3.0);
+        graded.setGradedCredits(3);
+        when(enrollmentRepository.findById("e-1")).thenReturn(Optional.of(stale), Optional.of(graded));
+        when(gpaService.creditHoursFor(COURSE)).thenReturn(3);
+        when(atomicUpdateRepository.updateByIdIf(eq(Enrollment.class), eq("e-1"), any(Criteria.class), any(Update.class)))
+                .thenReturn(false, true);
+
+        enrollmentService.updateEnrollmentGrade("e-1", "A", 4.0, 95.0);
+
+        verify(gpaService).applyGradeChange(same(graded), eq(4.0), eq(3));
+        verify(gpaService, never()).applyGradeChange(same(stale), anyDouble(), anyInt());
+    }
+
+    @Test
+    void gradeUpdateOfDroppedEnrollmentCountsNoCredits() {
+        when(enrollmentRepository.findById("e-1")).thenReturn(Optional.of(enrollment("e-1", "student-1", "DROPPED")));
+        when(atomicUpdateRepository.updateByIdIf(eq(Enrollment.class), eq("e-1"), any(Criteria.class), any(Update.class)))
+                .thenReturn(true);
+
+        assertEquals(0, enrollmentService.updateEnrollmentGrade("e-1", "A", 4.0, 95.0).getGradedCredits());
+        verify(gpaService, never()).creditHoursFor(anyString());
+    }
+
+    @Test
+    void gradeUpdateGivesUpAfterRepeatedConflicts() {
+        when(enrollmentRepository.findById("e-1")).thenReturn(Optional.of(enrollment("e-1", "student-1", "ACTIVE")));
+        when(gpaService.creditHoursFor(COURSE)).thenReturn(3);
+        when(atomicUpdateRepository.updateByIdIf(eq(Enrollment.class), eq("e-1"), any(Criteria.class), any(Update.class)))
+                .thenReturn(false);
+
+        assertThrows(ServiceBusyException.class, () -> enrollmentService.updateEnrollmentGrade("e-1", "A", 4.0, 95.0));
+        verify(gpaService, never()).applyGradeChange(any(Enrollment.class), anyDouble(), anyInt());
+    }
+
+    private static Enrollment enrollment(String id, String studentId, String status) {
+        Enrollment enrollment = EnrollmentService.newEnrollment(studentId, COURSE);
+        enrollment.setId(id);
+        enrollment.setStatus(status);
+        return enrollment;
+    }
+
+    private static WaitlistEntry waitlistEntry(String studentId) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId("w-" + studentId);
+        entry.setCourseId(COURSE);
+        entry.setStudentId(studentId);
+        entry.setPosition(1);
+        return entry;
+    }
+}
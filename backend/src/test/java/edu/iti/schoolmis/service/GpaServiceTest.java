@@ -0,0 +1,140 @@
+package edu.iti.schoolmis.service;
+
+import com.mongodb.client.result.UpdateResult;
+import edu.iti.schoolmis.dto.GpaRecomputeReport;
+import edu.iti.schoolmis.entity.Course;
+import edu.iti.schoolmis.entity.Enrollment;
+import edu.iti.schoolmis.entity.Student;
+import edu.iti.schoolmis.service.GpaService.GradeChange;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delta arithmetic of GpaService grade changes and the batch recompute
+ */
+@ExtendWith(MockitoExtension.class)
+class GpaServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private GpaService gpaService;
+
+    @Test
+    void gradeChangesAreMergedIntoOneDeltaPerStudent() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class)).thenReturn(bulkOperations);
+
+        gpaService.applyGradeChanges(List.of(
+                new GradeChange(enrollment("student-1", 0.0, 0), 4.0, 3),
+                new GradeChange(enrollment("student-1", 3.0, 3), 2.0, 3),
+                new GradeChange(enrollment("student-2", 3.5, 4), 3.5, 4)));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(bulkOperations).updateOne(query.capture(), update.capture());
+        verify(bulkOperations).execute();
+
+        assertEquals("student-1", query.getValue().getQueryObject().get("id"));
+        Document totals = setStage(update.getValue());
+        assertEquals(9.0, delta(totals, "gradePointSum"));
+        assertEquals(3, delta(totals, "gradedCredits"));
+    }
+
+    @Test
+    void unchangedGradesWriteNothing() {
+        gpaService.applyGradeChanges(List.of(
+                new GradeChange(enrollment("student-1", 3.0, 3), 3.0, 3),
+                new GradeChange(enrollment(null, 0.0, 0), 4.0, 3)));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    @Test
+    void retractRemovesTheWholeContribution() {
+        gpaService.retract(enrollment("student-1", 3.5, 4));
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), any(Class.class));
+        Document totals = setStage(update.getValue());
+        assertEquals(-14.0, delta(totals, "gradePointSum"));
+        assertEquals(-4, delta(totals, "gradedCredits"));
+    }
+
+    @Test
+    void recomputeStreamsEnrollmentsAndWritesOneBatchAtATime() {
+        ReflectionTestUtils.setField(gpaService, "batchSize", 2);
+        Course course = new Course();
+        course.setId("course-1");
+        course.setCreditHours(3);
+        when(mongoTemplate.find(any(Query.class), eq(Course.class))).thenReturn(List.of(course));
+        when(mongoTemplate.stream(any(Query.class), eq(Enrollment.class))).thenReturn(Stream.of(
+                graded("student-1", 4.0), graded("student-1", 2.0), graded("student-2", 3.0), graded("student-3", 3.5)));
+        BulkOperations enrollmentBulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Enrollment.class)).thenReturn(enrollmentBulk);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class)).thenReturn(bulkOperations);
+        UpdateResult noneReset = UpdateResult.acknowledged(0, 0L, null);
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Student.class))).thenReturn(noneReset);
+
+        GpaRecomputeReport report = gpaService.recomputeAll();
+
+        assertEquals(4, report.getEnrollmentsScanned());
+        assertEquals(3, report.getStudentsUpdated());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Enrollment.class));
+        verify(mongoTemplate, times(2)).bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class);
+        verify(bulkOperations, times(3)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(2)).execute();
+    }
+
+    private static Enrollment graded(String studentId, double gradePoint) {
+        Enrollment enrollment = enrollment(studentId, gradePoint, 3);
+        enrollment.setCourseId("course-1");
+        enrollment.setGrade("A");
+        return enrollment;
+    }
+
+    private static Enrollment enrollment(String studentId, double gradePoint, int gradedCredits) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudentId(studentId);
+        enrollment.setGradePoint(gradePoint);
+        enrollment.setGradedCredits(gradedCredits);
+        return enrollment;
+    }
+
+    private static Document setStage(UpdateDefinition update) {
+        AggregationUpdate pipeline = assertInstanceOf(AggregationUpdate.class, update);
+        return pipeline.toPipeline(Aggregation.DEFAULT_CONTEXT).get(0).get("$set", Document.class);
+    }
+
+    private static Object delta(Document totals, String field) {
+        return totals.get(field, Document.class).getList("$add", Object.class).get(1);
+    }
+}
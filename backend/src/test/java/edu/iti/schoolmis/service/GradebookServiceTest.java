@@ -0,0 +1,109 @@
+package edu.iti.schoolmis.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import edu.iti.schoolmis.dto.BulkImportReport;
+import edu.iti.schoolmis.dto.GradeEntry;
+import edu.iti.schoolmis.entity.Enrollment;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conditional grade writes of GradebookService and its fallback to a GPA recompute
+ */
+@ExtendWith(MockitoExtension.class)
+class GradebookServiceTest {
+
+    private static final String COURSE = "course-1";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private GpaService gpaService;
+
+    @Mock
+    private CourseRosterService courseRosterService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private GradebookService gradebookService;
+
+    @BeforeEach
+    void setUp() {
+        when(validator.validate(any(GradeEntry.class))).thenReturn(Collections.emptySet());
+        when(gpaService.creditHoursFor(COURSE)).thenReturn(3);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Enrollment.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    void writtenGradesApplyTheirDeltas() {
+        when(mongoTemplate.find(any(Query.class), eq(Enrollment.class))).thenReturn(List.of(enrollment(null, 0.0)));
+        BulkWriteResult result = matched(1);
+        when(bulkOperations.execute()).thenReturn(result);
+
+        BulkImportReport report = gradebookService.applyGradeSheet(COURSE, List.of(entry()));
+
+        assertEquals("UPDATED", report.getRows().get(0).getStatus());
+        verify(gpaService).applyGradeChanges(anyList());
+        verify(gpaService, never()).recompute(anyCollection());
+    }
+
+    @Test
+    void enrollmentChangedBeforeTheWriteIsReportedAndRecomputed() {
+        when(mongoTemplate.find(any(Query.class), eq(Enrollment.class)))
+                .thenReturn(List.of(enrollment(null, 0.0)), List.of(enrollment("B", 3.0)));
+        BulkWriteResult result = matched(0);
+        when(bulkOperations.execute()).thenReturn(result);
+
+        BulkImportReport report = gradebookService.applyGradeSheet(COURSE, List.of(entry()));
+
+        assertEquals("CONFLICT", report.getRows().get(0).getStatus());
+        assertEquals(1, report.getFailed());
+        verify(gpaService).recompute(Set.of("student-1"));
+        verify(gpaService, never()).applyGradeChanges(anyList());
+    }
+
+    private static GradeEntry entry() {
+        return new GradeEntry("student-1", "A", 4.0, 95.0);
+    }
+
+    private static Enrollment enrollment(String grade, double gradePoint) {
+        Enrollment enrollment = EnrollmentService.newEnrollment("student-1", COURSE);
+        enrollment.setId("e-1");
+        enrollment.setGrade(grade);
+        enrollment.setGradePoint(gradePoint);
+        return enrollment;
+    }
+
+    private static BulkWriteResult matched(int count) {
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getMatchedCount()).thenReturn(count);
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.iti.schoolmis.service;
+
+import edu.iti.schoolmis.dto.StudentRequest;
+import edu.iti.schoolmis.entity.Student;
+import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
+import edu.iti.schoolmis.repository.StudentOverviewRepository;
+import edu.iti.schoolmis.repository.StudentRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Update;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Partial profile updates of StudentService
+ */
+@ExtendWith(MockitoExtension.class)
+class StudentServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Mock
+    private StudentOverviewRepository studentOverviewRepository;
+
+    @Mock
+    private SearchService searchService;
+
+    @InjectMocks
+    private StudentService studentService;
+
+    @Test
+    void updateStudentLeavesGpaTotalsAndActiveFlagAlone() {
+        StudentRequest request = new StudentRequest();
+        request.setGender("F");
+        request.setParentName("Parent");
+        request.setDateOfBirth("2008-05-01");
+        Student updated = new Student();
+        updated.setId("student-1");
+        when(atomicUpdateRepository.updateByIdAndGet(eq(Student.class), eq("student-1"), any(Update.class)))
+                .thenReturn(Optional.of(updated));
+
+        studentService.updateStudent("student-1", request);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(atomicUpdateRepository).updateByIdAndGet(eq(Student.class), eq("student-1"), update.capture());
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(1, update.getValue().getUpdateObject().size());
+        assertEquals("Parent", set.get("parentName"));
+        assertEquals(LocalDate.of(2008, 5, 1), set.get("dateOfBirth"));
+        for (String field : new String[] {"gpa", "gradePointSum", "gradedCredits", "active"}) {
+            assertFalse(set.containsKey(field), field);
+        }
+        verify(studentRepository, never()).save(any(Student.class));
+        verify(searchService).indexStudent(updated);
+    }
+
+    @Test
+    void updateStudentThrowsWhenStudentIsGone() {
+        when(atomicUpdateRepository.updateByIdAndGet(eq(Student.class), eq("student-1"), any(Update.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> studentService.updateStudent("student-1", new StudentRequest()));
+    }
+}
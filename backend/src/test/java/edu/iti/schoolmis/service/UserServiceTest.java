@@ -0,0 +1,80 @@
+package edu.iti.schoolmis.service;
+
+import edu.iti.schoolmis.entity.User;
+import edu.iti.schoolmis.exception.ResourceNotFoundException;
+import edu.iti.schoolmis.repository.AtomicUpdateRepository;
+import edu.iti.schoolmis.repository.UserRepository;
+import edu.iti.schoolmis.security.UserPrincipalCache;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Update;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Role changes of UserService
+ */
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AtomicUpdateRepository atomicUpdateRepository;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    void roleChangeSetsRolesAndBumpsVersionInOneWrite() {
+        User updated = new User();
+        updated.setId("user-1");
+        updated.setEmail("user@example.com");
+        updated.setRoles(Set.of(User.Role.TEACHER));
+        updated.setTokenVersion(4);
+        when(atomicUpdateRepository.updateByIdAndGet(eq(User.class), eq("user-1"), any(Update.class)))
+                .thenReturn(Optional.of(updated));
+
+        userService.updateUserRoles("user-1", Set.of("teacher"));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(atomicUpdateRepository).updateByIdAndGet(eq(User.class), eq("user-1"), update.capture());
+        Document document = update.getValue().getUpdateObject();
+        assertEquals(new Document("tokenVersion", 1), document.get("$inc"));
+        assertEquals(EnumSet.of(User.Role.TEACHER), document.get("$set", Document.class).get("roles"));
+        verify(userRepository, never()).save(any(User.class));
+        verify(userPrincipalCache).refresh(updated);
+    }
+
+    @Test
+    void roleChangeOfMissingUserThrowsNotFound() {
+        when(atomicUpdateRepository.updateByIdAndGet(eq(User.class), eq("user-1"), any(Update.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.updateUserRoles("user-1", Set.of("ADMIN")));
+    }
+
+    @Test
+    void unknownRoleIsRejectedBeforeAnyWrite() {
+        assertThrows(IllegalArgumentException.class, () -> userService.updateUserRoles("user-1", Set.of("JANITOR")));
+        verify(atomicUpdateRepository, never()).updateByIdAndGet(eq(User.class), any(), any(Update.class));
+    }
+}
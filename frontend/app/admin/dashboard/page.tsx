@@ -49,7 +49,9 @@ export default function AdminDashboard() {
       console.log("📡 Making request to: http://localhost:8080/api/users");
       let allUsersData: User[];
       try {
-        allUsersData = await api.getAllUsers();
+        allUsersData = await api.collectAllPages((cursor) =>
+          api.getAllUsers(cursor, 200),
+        );
         console.log(
           "✅ SUCCESS! Fetched",
           allUsersData.length,
@@ -69,7 +71,9 @@ export default function AdminDashboard() {
       let teachersData: Teacher[] = [];
 
       try {
-        studentsData = await api.getActiveStudents();
+        studentsData = await api.collectAllPages((cursor) =>
+          api.getActiveStudents(cursor, 200),
+        );
         console.log(
           "✅ Fetched",
           studentsData.length,
@@ -25,7 +25,7 @@ export default function AdminReportsPage() {
     try {
       setIsLoading(true);
       const [students, teachers, courses] = await Promise.all([
-        api.getActiveStudents(),
+        api.collectAllPages((cursor) => api.getActiveStudents(cursor, 200)),
         api.getActiveTeachers(),
         api.getAllCourses(),
       ]);
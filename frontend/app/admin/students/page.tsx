@@ -11,6 +11,8 @@ export default function AdminStudentsPage() {
   const [students, setStudents] = useState<Student[]>([]);
   const [filteredStudents, setFilteredStudents] = useState<Student[]>([]);
   const [isLoading, setIsLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [searchQuery, setSearchQuery] = useState("");
   const [selectedDepartment, setSelectedDepartment] = useState<string>("ALL");
 
@@ -25,8 +27,9 @@ export default function AdminStudentsPage() {
   const fetchStudents = async () => {
     try {
       setIsLoading(true);
-      const data = await api.getActiveStudents();
-      setStudents(data);
+      const page = await api.getActiveStudents();
+      setStudents(page.items);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error("Failed to fetch students:", error);
       alert("Failed to load students. Please try again.");
@@ -35,6 +38,21 @@ export default function AdminStudentsPage() {
     }
   };
 
+  const loadMoreStudents = async () => {
+    if (!nextCursor) return;
+    try {
+      setIsLoadingMore(true);
+      const page = await api.getActiveStudents(nextCursor);
+      setStudents((current) => [...current, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Failed to fetch more students:", error);
+      alert("Failed to load more students. Please try again.");
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   const filterStudents = () => {
     let filtered = [...students];
 
@@ -123,6 +141,7 @@ export default function AdminStudentsPage() {
         <div className="bg-white rounded-lg shadow p-6">
           <div className="text-2xl font-bold text-gray-900">
             {students.length}
+            {nextCursor ? "+" : ""}
           </div>
           <div className="text-gray-600">Total Students</div>
         </div>
@@ -288,8 +307,21 @@ export default function AdminStudentsPage() {
 
       {/* Showing results */}
       <div className="text-sm text-gray-600 text-center">
-        Showing {filteredStudents.length} of {students.length} students
+        Showing {filteredStudents.length} of {students.length}
+        {nextCursor ? "+" : ""} students
       </div>
+
+      {nextCursor && (
+        <div className="text-center">
+          <button
+            onClick={loadMoreStudents}
+            disabled={isLoadingMore}
+            className="bg-blue-600 text-white px-4 py-2 rounded-lg hover:bg-blue-700 transition-colors disabled:opacity-50"
+          >
+            {isLoadingMore ? "Loading..." : "Load more"}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
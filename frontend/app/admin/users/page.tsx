@@ -11,6 +11,8 @@ export default function UserManagementPage() {
   const [users, setUsers] = useState<User[]>([]);
   const [filteredUsers, setFilteredUsers] = useState<User[]>([]);
   const [isLoading, setIsLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [selectedRole, setSelectedRole] = useState<string>("ALL");
   const [selectedStatus, setSelectedStatus] = useState<string>("ALL");
   const [searchQuery, setSearchQuery] = useState("");
@@ -26,7 +28,9 @@ export default function UserManagementPage() {
   const fetchUsers = async () => {
     try {
       setIsLoading(true);
-      const data = await api.getAllUsers();
+      const page = await api.getAllUsers();
+      const data = page.items;
+      setNextCursor(page.nextCursor);
       console.log("Fetched users from database:", data.length);
       console.log("Pending users:", data.filter((u) => !u.enabled).length);
       console.log("Active users:", data.filter((u) => u.enabled).length);
@@ -46,6 +50,21 @@ export default function UserManagementPage() {
     }
   };
 
+  const loadMoreUsers = async () => {
+    if (!nextCursor) return;
+    try {
+      setIsLoadingMore(true);
+      const page = await api.getAllUsers(nextCursor);
+      setUsers((current) => [...current, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Failed to fetch more users:", error);
+      alert("Failed to load more users. Please try again.");
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   const filterUsers = () => {
     let filtered = [...users];
 
@@ -179,7 +198,10 @@ export default function UserManagementPage() {
       {/* Stats Cards */}
       <div className="grid grid-cols-1 md:grid-cols-4 gap-6">
         <div className="bg-white rounded-lg shadow p-6">
-          <div className="text-2xl font-bold text-gray-900">{users.length}</div>
+          <div className="text-2xl font-bold text-gray-900">
+            {users.length}
+            {nextCursor ? "+" : ""}
+          </div>
           <div className="text-gray-600">Total Users</div>
           <div className="text-xs text-gray-500 mt-1">
             All users in database
@@ -460,8 +482,21 @@ export default function UserManagementPage() {
 
       {/* Showing results */}
       <div className="text-sm text-gray-600 text-center">
-        Showing {filteredUsers.length} of {users.length} users
+        Showing {filteredUsers.length} of {users.length}
+        {nextCursor ? "+" : ""} users
       </div>
+
+      {nextCursor && (
+        <div className="text-center">
+          <button
+            onClick={loadMoreUsers}
+            disabled={isLoadingMore}
+            className="bg-blue-600 text-white px-4 py-2 rounded-lg hover:bg-blue-700 transition-colors disabled:opacity-50"
+          >
+            {isLoadingMore ? "Loading..." : "Load more"}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
@@ -27,8 +27,8 @@ export default function EnrollmentOfficeDashboard() {
   useEffect(() => {
     const fetchData = async () => {
       try {
-        const studentsData = await api.getActiveStudents();
-        setStudents(studentsData.slice(0, 10)); // Show recent 10
+        const studentsPage = await api.getActiveStudents(null, 10);
+        setStudents(studentsPage.items); // Show first 10
       } catch (error) {
         console.error("Failed to fetch dashboard data:", error);
       } finally {
@@ -35,8 +35,7 @@ export default function StudentCoursesPage() {
         const user = authUtils.getUser();
         if (!user) return;
 
-        const students = await api.getActiveStudents();
-        const student = students.find((s) => s.userId === user.id);
+        const student = await api.getStudentByUserId(user.id);
 
         if (student) {
           const data = await api.getStudentEnrollments(student.id);
@@ -56,7 +55,7 @@ export default function StudentCoursesPage() {
     return <LoadingPage />;
   }
 
-  const activeEnrollments = enrollments.filter((e) => e.status === "ENROLLED");
+  const activeEnrollments = enrollments.filter((e) => e.status === "ACTIVE");
   const completedEnrollments = enrollments.filter(
     (e) => e.status === "COMPLETED",
   );
@@ -24,7 +24,7 @@ import {
 import Badge from "@/components/ui/Badge";
 import { LoadingPage } from "@/components/ui/LoadingSpinner";
 import { formatDate, formatGPA, getStatusColor } from "@/lib/utils";
-import type { Student, Enrollment } from "@/lib/types";
+import type { Student, Enrollment, Course } from "@/lib/types";
 
 export default function StudentDashboard() {
   const [student, setStudent] = useState<Student | null>(null);
@@ -38,17 +38,29 @@ export default function StudentDashboard() {
         if (!user) return;
 
         // Fetch student profile
-        const students = await api.getActiveStudents();
-        const currentStudent = students.find((s) => s.userId === user.id);
+        const currentStudent = await api.getStudentByUserId(user.id);
 
         if (currentStudent) {
           setStudent(currentStudent);
 
-          // Fetch active enrollments
-          const studentEnrollments = await api.getStudentActiveEnrollments(
-            currentStudent.id,
+          // Fetch active enrollments with course details in one call
+          const overview = await api.getStudentOverview(currentStudent.id);
+          setEnrollments(
+            overview.activeEnrollments.map((e) => ({
+              id: e.enrollmentId,
+              studentId: currentStudent.id,
+              courseId: e.courseId,
+              enrollmentDate: e.enrollmentDate,
+              status: "ACTIVE",
+              grade: e.grade,
+              createdAt: e.enrollmentDate,
+              course: {
+                courseCode: e.courseCode,
+                courseName: e.courseName,
+                credits: e.creditHours,
+              } as Course,
+            })),
           );
-          setEnrollments(studentEnrollments);
         }
       } catch (error) {
         console.error("Failed to fetch dashboard data:", error);
@@ -78,7 +90,7 @@ export default function StudentDashboard() {
   }
 
   const activeCoursesCount = enrollments.filter(
-    (e) => e.status === "ENROLLED",
+    (e) => e.status === "ACTIVE",
   ).length;
   const completedCoursesCount = enrollments.filter(
     (e) => e.status === "COMPLETED",
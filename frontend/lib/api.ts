@@ -4,9 +4,11 @@ import type {
   User,
   AuthResponse,
   Student,
+  StudentOverview,
   Teacher,
   Course,
   Enrollment,
+  TransitionResult,
   Attendance,
   Payment,
   Document,
@@ -14,6 +16,7 @@ import type {
   AttendancePercentage,
   TotalPaid,
   ApiError,
+  CursorPage,
 } from "./types";
 
 const API_BASE_URL =
@@ -88,6 +91,34 @@ class ApiClient {
     }
   }
 
+  // Fetch one page of a keyset-paginated listing; pass nextCursor back to get the next one
+  private async requestPage<T>(
+    endpoint: string,
+    cursor?: string | null,
+    size = 50,
+  ): Promise<CursorPage<T>> {
+    const separator = endpoint.includes("?") ? "&" : "?";
+    const query =
+      `${separator}size=${size}` +
+      (cursor ? `&cursor=${encodeURIComponent(cursor)}` : "");
+    return this.request<CursorPage<T>>(`${endpoint}${query}`);
+  }
+
+  // Walk every page of a listing. Only for screens that aggregate over the
+  // whole collection (reports, dashboard totals); lists should page instead.
+  async collectAllPages<T>(
+    fetchPage: (cursor: string | null) => Promise<CursorPage<T>>,
+  ): Promise<T[]> {
+    const items: T[] = [];
+    let cursor: string | null = null;
+    do {
+      const page: CursorPage<T> = await fetchPage(cursor);
+      items.push(...page.items);
+      cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+  }
+
   // ==================== Authentication ====================
 
   async register(data: {
@@ -234,12 +265,27 @@ class ApiClient {
     return this.request<Student>(`/students/${id}`);
   }
 
-  async getActiveStudents(): Promise<Student[]> {
-    return this.request<Student[]>("/students/active");
+  async getStudentOverview(id: string): Promise<StudentOverview> {
+    return this.request<StudentOverview>(`/students/${id}/overview`);
+  }
+
+  async getStudentByUserId(userId: string): Promise<Student> {
+    return this.request<Student>(`/students/user/${userId}`);
+  }
+
+  async getActiveStudents(
+    cursor?: string | null,
+    size = 50,
+  ): Promise<CursorPage<Student>> {
+    return this.requestPage<Student>("/students/active", cursor, size);
   }
 
-  async getStudentsByLevel(level: string): Promise<Student[]> {
-    return this.request<Student[]>(`/students/level/${level}`);
+  async getStudentsByLevel(
+    level: string,
+    cursor?: string | null,
+    size = 50,
+  ): Promise<CursorPage<Student>> {
+    return this.requestPage<Student>(`/students/level/${level}`, cursor, size);
   }
 
   async updateStudent(id: string, data: Partial<Student>): Promise<Student> {
@@ -249,12 +295,6 @@ class ApiClient {
     });
   }
 
-  async updateStudentGpa(id: string, gpa: number): Promise<Student> {
-    return this.request<Student>(`/students/${id}/gpa?gpa=${gpa}`, {
-      method: "PATCH",
-    });
-  }
-
   async deactivateStudent(id: string): Promise<Student> {
     return this.request<Student>(`/students/${id}/deactivate`, {
       method: "PATCH",
@@ -403,14 +443,20 @@ class ApiClient {
     );
   }
 
-  async dropEnrollment(id: string): Promise<Enrollment> {
-    return this.request<Enrollment>(`/enrollments/${id}/drop`, {
+  async activateEnrollment(id: string): Promise<TransitionResult> {
+    return this.request<TransitionResult>(`/enrollments/${id}/activate`, {
+      method: "PATCH",
+    });
+  }
+
+  async dropEnrollment(id: string): Promise<TransitionResult> {
+    return this.request<TransitionResult>(`/enrollments/${id}/drop`, {
       method: "PATCH",
     });
   }
 
-  async completeEnrollment(id: string): Promise<Enrollment> {
-    return this.request<Enrollment>(`/enrollments/${id}/complete`, {
+  async completeEnrollment(id: string): Promise<TransitionResult> {
+    return this.request<TransitionResult>(`/enrollments/${id}/complete`, {
       method: "PATCH",
     });
   }
@@ -617,29 +663,16 @@ class ApiClient {
 
   // ==================== User Management (Admin) ====================
 
-  async getAllUsers(): Promise<User[]> {
-    console.log("📡 API: Fetching all users from /users");
-    try {
-      const users = await this.request<any[]>("/users");
-      console.log("📦 API: Received", users.length, "raw users from backend");
-      console.log("📋 API: Raw data sample:", users[0]);
-
-      // Normalize each user's role field (backend may return 'roles' array instead of 'role')
-      const normalizedUsers = users.map((u) => this.normalizeUserRole(u));
-      console.log("✅ API: Normalized all users successfully");
-
-      return normalizedUsers;
-    } catch (error: any) {
-      console.error("❌ API: Failed to fetch users from /users");
-      console.error("   Error:", error);
-      throw error;
-    }
-  }
-
-  async getPendingUsers(): Promise<User[]> {
-    // Filter users where enabled is false
-    const allUsers = await this.getAllUsers();
-    return allUsers.filter((u) => !u.enabled);
+  async getAllUsers(
+    cursor?: string | null,
+    size = 50,
+  ): Promise<CursorPage<User>> {
+    const page = await this.requestPage<any>("/users", cursor, size);
+    // Normalize each user's role field (backend may return 'roles' array instead of 'role')
+    return {
+      items: page.items.map((u) => this.normalizeUserRole(u)),
+      nextCursor: page.nextCursor,
+    };
   }
 
   async approveUser(userId: string): Promise<User> {
@@ -666,10 +699,20 @@ class ApiClient {
     });
   }
 
-  async getUsersByRole(role: string): Promise<User[]> {
-    // Filter all users by role
-    const allUsers = await this.request<User[]>("/users");
-    return allUsers.filter((u) => u.role === role);
+  async getUsersByRole(
+    role: string,
+    cursor?: string | null,
+    size = 50,
+  ): Promise<CursorPage<User>> {
+    const page = await this.requestPage<any>(
+      `/users/role/${encodeURIComponent(role)}`,
+      cursor,
+      size,
+    );
+    return {
+      items: page.items.map((u) => this.normalizeUserRole(u)),
+      nextCursor: page.nextCursor,
+    };
   }
 }
 
@@ -2,7 +2,7 @@
 
 export type UserRole = "STUDENT" | "TEACHER" | "ENROLLMENT_OFFICE" | "ADMIN";
 
-export type EnrollmentStatus = "ENROLLED" | "DROPPED" | "COMPLETED";
+export type EnrollmentStatus = "PENDING" | "ACTIVE" | "DROPPED" | "COMPLETED";
 
 export type AttendanceStatus = "PRESENT" | "ABSENT" | "LATE" | "EXCUSED";
 
@@ -46,6 +46,11 @@ export interface User {
   updatedAt?: string;
 }
 
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
 export interface AuthResponse {
   accessToken: string;
   tokenType?: string;
@@ -181,3 +186,30 @@ export interface AttendancePercentage {
 export interface TotalPaid {
   totalPaid: number;
 }
+
+export interface EnrollmentOverview {
+  enrollmentId: string;
+  courseId: string;
+  courseCode?: string;
+  courseName?: string;
+  creditHours: number;
+  enrollmentDate: string;
+  grade?: string;
+  attendanceRecords: number;
+  presentCount: number;
+  attendancePercentage: number;
+}
+
+export interface StudentOverview {
+  profile: Student;
+  activeEnrollments: EnrollmentOverview[];
+  totalPaid: number;
+}
+
+export interface TransitionResult {
+  enrollmentId: string;
+  transition: "ACTIVATE" | "COMPLETE" | "DROP";
+  applied: boolean;
+  previousStatus: string;
+  status: string;
+}
@@ -74,7 +74,7 @@ export function formatLevel(level: string): string {
 export function getStatusColor(status: string): string {
   const statusColors: Record<string, string> = {
     // Enrollment
-    ENROLLED: "bg-green-100 text-green-800",
+    ACTIVE: "bg-green-100 text-green-800",
     DROPPED: "bg-red-100 text-red-800",
     COMPLETED: "bg-blue-100 text-blue-800",
     // Attendance